@@ -7,10 +7,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -35,15 +38,37 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, new NewBookingRequest());
     }
 
+    public ResponseEntity<Object> approveOrRejectAll(long ownerId, List<BookingDecisionRequest> decisions) {
+        return patch("/batch", ownerId, decisions);
+    }
+
     public ResponseEntity<Object> getById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByBookerId(long userId, BookingState state) {
-        return get("?state={state}", userId, Map.of("state", state.name()));
+    public ResponseEntity<Object> getBookerSummary(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<Object> getAllByBookerId(long userId, BookingState state, String cursor, int size) {
+        return getPage("", userId, state, cursor, size);
+    }
+
+    public ResponseEntity<Object> getAllByItemOwnerId(long userId, BookingState state, String cursor, int size) {
+        return getPage("/owner", userId, state, cursor, size);
     }
 
-    public ResponseEntity<Object> getAllByItemOwnerId(long userId, BookingState state) {
-        return get("/owner?state={state}", userId, Map.of("state", state.name()));
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name(), "size", size));
+        path += "?state={state}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, userId, parameters);
     }
 }
@@ -1,19 +1,31 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
+import java.util.List;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
     private final BookingClient bookingClient;
+    private final BookingStreamClient bookingStreamClient;
 
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -28,6 +40,28 @@ public class BookingController {
         return bookingClient.approveOrReject(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveOrRejectAll(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                     @RequestBody @NotEmpty @Size(max = 100)
+                                                     List<@Valid @NotNull BookingDecisionRequest> decisions) {
+        return bookingClient.approveOrRejectAll(ownerId, decisions);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookerSummary(@RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        return bookingClient.getBookerSummary(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingClient.getOwnerSummary(ownerId);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingStreamClient.streamOwnerBookings(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable long bookingId) {
@@ -36,15 +70,19 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getAllByBookerId(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                                   @RequestParam(name = "state", defaultValue = "All") String state) {
+                                                   @RequestParam(name = "state", defaultValue = "All") String state,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
         BookingState bookingState = BookingState.from(state);
-        return bookingClient.getAllByBookerId(bookerId, bookingState);
+        return bookingClient.getAllByBookerId(bookerId, bookingState, cursor, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllByItemOwnerId(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                      @RequestParam(name = "state", defaultValue = "All") String state) {
+                                                      @RequestParam(name = "state", defaultValue = "All") String state,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
         BookingState bookingState = BookingState.from(state);
-        return bookingClient.getAllByItemOwnerId(ownerId, bookingState);
+        return bookingClient.getAllByItemOwnerId(ownerId, bookingState, cursor, size);
     }
 }
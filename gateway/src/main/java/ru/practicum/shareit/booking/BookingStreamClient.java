@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relays the server-sent event streams of the server to gateway clients. Upstream streams are read by the
+ * asynchronous JDK client, so that an open stream holds a connection but no thread on either side;
+ * a request thread waits only for the upstream response headers, to pass a refusal on with its status.
+ */
+@Slf4j
+@Service
+public class BookingStreamClient {
+    private static final String API_PREFIX = "/bookings";
+
+    private final HttpClient httpClient;
+    private final String serverUrl;
+    private final Duration connectTimeout;
+    private final Duration timeout;
+
+    @Autowired
+    public BookingStreamClient(@Value("${shareit-server.url}") String serverUrl,
+                               @Value("${shareit.booking.stream.connect-timeout:10s}") Duration connectTimeout,
+                               @Value("${shareit.booking.stream.timeout:30m}") Duration timeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.serverUrl = serverUrl;
+        this.connectTimeout = connectTimeout;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter streamOwnerBookings(long ownerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        relay("/owner/stream", ownerId, emitter);
+        return emitter;
+    }
+
+    void relay(String path, long userId, SseEmitter emitter) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serverUrl + API_PREFIX + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        EventRelay relay = new EventRelay(emitter);
+        CompletableFuture<Integer> opened = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> response = httpClient.sendAsync(request, responseInfo -> {
+            opened.complete(responseInfo.statusCode());
+            if (responseInfo.statusCode() == 200) {
+                return HttpResponse.BodySubscribers.mapping(
+                        HttpResponse.BodySubscribers.fromLineSubscriber(relay), body -> (byte[]) null);
+            }
+            return HttpResponse.BodySubscribers.ofByteArray();
+        });
+        response.whenComplete((result, e) -> {
+            if (e != null) {
+                opened.completeExceptionally(e);
+            }
+        });
+        int status = await(opened);
+        if (status != 200) {
+            byte[] body = await(response).body();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            throw new RestClientResponseException("Unable to open the stream.", HttpStatusCode.valueOf(status),
+                    "", headers, body, StandardCharsets.UTF_8);
+        }
+        emitter.onCompletion(relay::cancel);
+        emitter.onTimeout(relay::cancel);
+        emitter.onError(e -> relay.cancel());
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            future.cancel(true);
+            throw new ResourceAccessException("Unable to open the stream: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Unable to open the stream: interrupted");
+        }
+    }
+
+    /**
+     * Reads events line by line and sends each to the emitter as soon as its blank line is read.
+     * One line is requested at a time, so a slow client slows its upstream down instead of being buffered for.
+     */
+    static class EventRelay implements Flow.Subscriber<String> {
+        private final SseEmitter emitter;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private String id;
+        private String name;
+        private StringBuilder data;
+
+        EventRelay(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                if (line.isEmpty()) {
+                    dispatch();
+                } else if (line.startsWith(":")) {
+                    emitter.send(SseEmitter.event().comment(value(line, 1)));
+                } else {
+                    int colon = line.indexOf(':');
+                    String field = colon < 0 ? line : line.substring(0, colon);
+                    String value = colon < 0 ? "" : value(line, colon + 1);
+                    switch (field) {
+                        case "id" -> id = value;
+                        case "event" -> name = value;
+                        case "data" -> data = data == null
+                                ? new StringBuilder(value)
+                                : data.append('\n').append(value);
+                        default -> {
+                            // retry and unknown fields are not relayed
+                        }
+                    }
+                }
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stream client has gone: {}", e.getMessage());
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!cancelled) {
+                log.warn("Upstream stream failed: {}", throwable.getMessage());
+                emitter.completeWithError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!cancelled) {
+                emitter.complete();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private void dispatch() throws IOException {
+            if (data == null) {
+                id = null;
+                name = null;
+                return;
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (id != null) {
+                event.id(id);
+            }
+            if (name != null) {
+                event.name(name);
+            }
+            event.data(data.toString());
+            id = null;
+            name = null;
+            data = null;
+            emitter.send(event);
+        }
+
+        private static String value(String line, int from) {
+            return line.startsWith(" ", from) ? line.substring(from + 1) : line.substring(from);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionRequest {
+    @NotNull(message = "Id бронирования надо обязательно указывать.")
+    private Long bookingId;
+    @NotNull(message = "Решение по бронированию надо обязательно указывать.")
+    private Boolean approved;
+}
@@ -11,6 +11,8 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -42,8 +44,32 @@ public class ItemClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text) {
-        return get("/search?text={text}", userId, Map.of("text", text));
+    public ResponseEntity<Object> searchItems(long userId, String text, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "size", size));
+        String path = "/search?text={text}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(long userId, String prefix, int size) {
+        return get("/suggest?prefix={prefix}&size={size}", userId, Map.of("prefix", prefix, "size", size));
+    }
+
+    public ResponseEntity<Object> getComments(long userId, long itemId, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        String path = "/" + itemId + "/comments?size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, Map.of("from", from, "to", to));
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 
 @Validated
 @RestController
@@ -43,8 +48,38 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@RequestParam String text,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemClient.searchItems(userId, text);
+        return itemClient.searchItems(userId, text, cursor, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") @Positive @Max(20) int size,
+                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.suggestItemNames(userId, prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable long itemId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return itemClient.getComments(userId, itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("The end of the period must be after its start.");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 
+@Validated
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/requests")
@@ -26,8 +30,10 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestClient.getAll(userId);
+    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return itemRequestClient.getAll(userId, cursor, size);
     }
 
     @GetMapping("/{requestId}")
@@ -35,4 +41,10 @@ public class ItemRequestController {
                                           @PathVariable long requestId) {
         return itemRequestClient.getById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<Object> getSuggestions(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable long requestId) {
+        return itemRequestClient.getSuggestions(userId, requestId);
+    }
 }
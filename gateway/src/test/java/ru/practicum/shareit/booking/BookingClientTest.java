@@ -9,10 +9,12 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -104,16 +106,52 @@ class BookingClientTest {
         assertThat(body.get("status").asText()).isEqualTo("WAITING");
     }
 
+    @Test
+    void testGetSummaries() {
+        server.expect(once(), requestTo("http://localhost:9090/bookings/summary"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "10"))
+                .andRespond(withSuccess("{ \"all\": 3, \"waiting\": 1 }", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://localhost:9090/bookings/owner/summary"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "20"))
+                .andRespond(withSuccess("{ \"all\": 5, \"waiting\": 0 }", MediaType.APPLICATION_JSON));
+
+        JsonNode booker = mapper.valueToTree(bookingClient.getBookerSummary(10L).getBody());
+        JsonNode owner = mapper.valueToTree(bookingClient.getOwnerSummary(20L).getBody());
+
+        server.verify();
+        assertThat(booker.get("waiting").asLong()).isEqualTo(1L);
+        assertThat(owner.get("all").asLong()).isEqualTo(5L);
+    }
+
+    @Test
+    void testApproveOrRejectAll() {
+        server.expect(once(), requestTo("http://localhost:9090/bookings/batch"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andExpect(header("X-Sharer-User-Id", "20"))
+                .andExpect(jsonPath("$[0].bookingId").value(77))
+                .andExpect(jsonPath("$[1].approved").value(false))
+                .andRespond(withSuccess("[ {\"bookingId\": 77, \"status\": \"APPROVED\"} ]",
+                        MediaType.APPLICATION_JSON));
+
+        var resp = bookingClient.approveOrRejectAll(20L, List.of(new BookingDecisionRequest(77L, true),
+                new BookingDecisionRequest(78L, false)));
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+    }
+
     @Test
     void testGetAllByBookerId() throws Exception {
         String responseJson = "[ { \"id\": 23 }, { \"id\": 34 } ]";
 
-        server.expect(once(), requestTo("http://localhost:9090/bookings?state=PAST"))
+        server.expect(once(), requestTo("http://localhost:9090/bookings?state=PAST&size=20"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header("X-Sharer-User-Id", "44"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = bookingClient.getAllByBookerId(44L, BookingState.PAST);
+        var resp = bookingClient.getAllByBookerId(44L, BookingState.PAST, null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -131,12 +169,12 @@ class BookingClientTest {
         String responseJson = "[ { \"id\": 10 }, { \"id\": 68 } ]";
 
 
-        server.expect(once(), requestTo("http://localhost:9090/bookings/owner?state=FUTURE"))
+        server.expect(once(), requestTo("http://localhost:9090/bookings/owner?state=FUTURE&size=5&cursor=MTA"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header("X-Sharer-User-Id", "55"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = bookingClient.getAllByItemOwnerId(55L, BookingState.FUTURE);
+        var resp = bookingClient.getAllByItemOwnerId(55L, BookingState.FUTURE, "MTA", 5);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -193,7 +231,7 @@ class BookingClientTest {
     @org.junit.jupiter.params.ParameterizedTest
     @org.junit.jupiter.params.provider.EnumSource(BookingState.class)
     void testGetAllByBookerId_stateMapping(BookingState state) {
-        String url = "http://localhost:9090/bookings?state=" + state.name();
+        String url = "http://localhost:9090/bookings?state=" + state.name() + "&size=20";
         String responseJson = "[]";
 
         server.expect(once(), requestTo(url))
@@ -201,7 +239,7 @@ class BookingClientTest {
                 .andExpect(header("X-Sharer-User-Id", "777"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = bookingClient.getAllByBookerId(777L, state);
+        var resp = bookingClient.getAllByBookerId(777L, state, null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -210,7 +248,7 @@ class BookingClientTest {
     @org.junit.jupiter.params.ParameterizedTest
     @org.junit.jupiter.params.provider.EnumSource(BookingState.class)
     void testGetAllByItemOwnerId_stateMapping(BookingState state) {
-        String url = "http://localhost:9090/bookings/owner?state=" + state.name();
+        String url = "http://localhost:9090/bookings/owner?state=" + state.name() + "&size=20";
         String responseJson = "[]";
 
         server.expect(once(), requestTo(url))
@@ -218,7 +256,7 @@ class BookingClientTest {
                 .andExpect(header("X-Sharer-User-Id", "888"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = bookingClient.getAllByItemOwnerId(888L, state);
+        var resp = bookingClient.getAllByItemOwnerId(888L, state, null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
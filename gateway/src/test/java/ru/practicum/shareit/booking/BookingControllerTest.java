@@ -5,12 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -19,6 +26,8 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -32,6 +41,9 @@ class BookingControllerTest {
     @MockBean
     BookingClient bookingClient;
 
+    @MockBean
+    BookingStreamClient bookingStreamClient;
+
     @Test
     void testCreate() throws Exception {
         NewBookingRequest req = new NewBookingRequest();
@@ -101,6 +113,38 @@ class BookingControllerTest {
         verify(bookingClient).approveOrReject(20L, 77L, true);
     }
 
+    @Test
+    void testApproveOrRejectAll() throws Exception {
+        List<BookingDecisionRequest> decisions = List.of(new BookingDecisionRequest(77L, true),
+                new BookingDecisionRequest(78L, false));
+        when(bookingClient.approveOrRejectAll(anyLong(), anyList()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 20L)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).approveOrRejectAll(20L, decisions);
+    }
+
+    @Test
+    void testApproveOrRejectAll_invalidBatch_badRequest() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 20L)
+                        .contentType(APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 20L)
+                        .contentType(APPLICATION_JSON)
+                        .content("[{\"bookingId\": 77}]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     void testGetById() throws Exception {
         when(bookingClient.getById(anyLong(), anyLong()))
@@ -113,21 +157,61 @@ class BookingControllerTest {
         verify(bookingClient).getById(11L, 42L);
     }
 
+    @Test
+    void testGetSummaries() throws Exception {
+        when(bookingClient.getBookerSummary(anyLong())).thenReturn(ResponseEntity.ok(Map.of()));
+        when(bookingClient.getOwnerSummary(anyLong())).thenReturn(ResponseEntity.ok(Map.of()));
+
+        mvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", 11L))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 12L))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getBookerSummary(11L);
+        verify(bookingClient).getOwnerSummary(12L);
+    }
+
+    @Test
+    void testStreamOwnerBookings() throws Exception {
+        when(bookingStreamClient.streamOwnerBookings(anyLong())).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", 13L))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingStreamClient).streamOwnerBookings(13L);
+    }
+
+    @Test
+    void testStreamOwnerBookingsRefusedByServer() throws Exception {
+        byte[] body = "{\"error\":\"User not found.\"}".getBytes(StandardCharsets.UTF_8);
+        when(bookingStreamClient.streamOwnerBookings(anyLong()))
+                .thenThrow(new RestClientResponseException("Unable to open the stream.", HttpStatusCode.valueOf(404),
+                        "", new HttpHeaders(), body, StandardCharsets.UTF_8));
+
+        mvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", 14L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"error\":\"User not found.\"}"));
+    }
+
     @Test
     void testGetAllByBookerId() throws Exception {
-        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class)))
+        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 33L))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getAllByBookerId(33L, BookingState.ALL);
+        verify(bookingClient).getAllByBookerId(33L, BookingState.ALL, null, 20);
     }
 
     @Test
     void testGetAllByBookerIdBadState() throws Exception {
-        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class)))
+        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/bookings")
@@ -140,7 +224,7 @@ class BookingControllerTest {
 
     @Test
     void testGetAllByItemOwnerId() throws Exception {
-        when(bookingClient.getAllByItemOwnerId(anyLong(), any(BookingState.class)))
+        when(bookingClient.getAllByItemOwnerId(anyLong(), any(BookingState.class), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/bookings/owner")
@@ -148,12 +232,36 @@ class BookingControllerTest {
                         .param("state", "PAST"))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getAllByItemOwnerId(44L, BookingState.PAST);
+        verify(bookingClient).getAllByItemOwnerId(44L, BookingState.PAST, null, 20);
+    }
+
+    @Test
+    void testGetAllByItemOwnerId_cursorAndSizeForwarded() throws Exception {
+        when(bookingClient.getAllByItemOwnerId(anyLong(), any(BookingState.class), any(), anyInt()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 44L)
+                        .param("cursor", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getAllByItemOwnerId(44L, BookingState.ALL, "MTA", 5);
+    }
+
+    @Test
+    void testGetAllByBookerId_sizeOutOfRange_badRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 33L)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
     }
 
     @Test
     void getAllByItemOwnerIdBadState() throws Exception {
-        when(bookingClient.getAllByItemOwnerId(anyLong(), any(BookingState.class)))
+        when(bookingClient.getAllByItemOwnerId(anyLong(), any(BookingState.class), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/bookings/owner")
@@ -271,13 +379,13 @@ class BookingControllerTest {
 
     @Test
     void testGetAllByBookerId_defaultStateALL_whenParamMissing() throws Exception {
-        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class)))
+        when(bookingClient.getAllByBookerId(anyLong(), any(BookingState.class), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 33L))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getAllByBookerId(33L, BookingState.ALL);
+        verify(bookingClient).getAllByBookerId(33L, BookingState.ALL, null, 20);
     }
 }
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingStreamClientTest {
+
+    private HttpServer server;
+    private BookingStreamClient client;
+    private final BlockingQueue<String> userIds = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/owner/stream", exchange -> {
+            userIds.add(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            boolean known = "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            byte[] body = (known
+                    ? "id:7\nevent:booking\ndata:{\"id\":5}\n\n:heartbeat\n\nid:8\nevent:booking\ndata:{\"id\":6}\n\n"
+                    : "{\"error\":\"User not found.\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", known ? "text/event-stream" : "application/json");
+            exchange.sendResponseHeaders(known ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new BookingStreamClient("http://localhost:" + server.getAddress().getPort(),
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void relay_forwardsEventsAndCompletesWithTheUpstream() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        client.relay("/owner/stream", 1L, emitter);
+
+        assertThat(userIds.poll(5, TimeUnit.SECONDS)).isEqualTo("1");
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo("id:7\nevent:booking\ndata:{\"id\":5}\n\n");
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(":heartbeat\n\n");
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo("id:8\nevent:booking\ndata:{\"id\":6}\n\n");
+        assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo("complete");
+    }
+
+    @Test
+    void relay_refusedStream_passesTheServerResponseOn() {
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        assertThatThrownBy(() -> client.relay("/owner/stream", 2L, emitter))
+                .isInstanceOfSatisfying(RestClientResponseException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(404);
+                    assertThat(e.getResponseBodyAsString()).isEqualTo("{\"error\":\"User not found.\"}");
+                });
+        assertThat(emitter.sent).isEmpty();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            sent.add("complete");
+        }
+    }
+}
@@ -15,6 +15,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.client.ExpectedCount.once;
@@ -125,12 +126,12 @@ class ItemClientTest {
         String query = "drill";
         String responseJson = "[ {\"id\":10}, {\"id\":11} ]";
 
-        server.expect(once(), requestTo("http://localhost:9090/items/search?text=" + query))
+        server.expect(once(), requestTo("http://localhost:9090/items/search?text=" + query + "&size=20"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header("X-Sharer-User-Id", "50"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = itemClient.searchItems(50L, query);
+        var resp = itemClient.searchItems(50L, query, null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -138,6 +139,66 @@ class ItemClientTest {
         assertThat(list).hasSize(2);
     }
 
+    @Test
+    void testSearchItems_withCursor_passesNextCursorHeader() throws Exception {
+        server.expect(once(), requestTo("http://localhost:9090/items/search?text=drill&size=2&cursor=MTE"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "50"))
+                .andRespond(withSuccess("[ {\"id\":12}, {\"id\":13} ]", MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "MTM"));
+
+        var resp = itemClient.searchItems(50L, "drill", "MTE", 2);
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(resp.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("MTM");
+    }
+
+    @Test
+    void testSuggestItemNames() throws Exception {
+        server.expect(once(), requestTo("http://localhost:9090/items/suggest?prefix=dr&size=5"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "50"))
+                .andRespond(withSuccess("[\"drill\", \"driver\"]", MediaType.APPLICATION_JSON));
+
+        var resp = itemClient.suggestItemNames(50L, "dr", 5);
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+        var list = mapper.convertValue(resp.getBody(), java.util.List.class);
+        assertThat(list).containsExactly("drill", "driver");
+    }
+
+    @Test
+    void testGetComments_passesCursorAndNextCursorHeader() throws Exception {
+        server.expect(once(), requestTo("http://localhost:9090/items/77/comments?size=2&cursor=MTE"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "60"))
+                .andRespond(withSuccess("[ {\"id\":5}, {\"id\":4} ]", MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "MTI"));
+
+        var resp = itemClient.getComments(60L, 77L, "MTE", 2);
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(resp.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("MTI");
+    }
+
+    @Test
+    void testGetAvailability_passesIsoPeriod() {
+        server.expect(once(), requestTo("http://localhost:9090/items/77/availability"
+                        + "?from=2030-01-01T10:00&to=2030-01-02T10:30"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "60"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        var resp = itemClient.getAvailability(60L, 77L,
+                LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 30));
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+    }
+
     @Test
     void testCreateComment() throws Exception {
         CommentDto dto = new CommentDto();
@@ -214,12 +275,12 @@ class ItemClientTest {
         String text = "дрель 18V";
         String encoded = UriUtils.encodeQueryParam(text, StandardCharsets.UTF_8);
         server.expect(once(), requestTo("http://localhost:9090/items/" +
-                        "search?text=" + encoded))
+                        "search?text=" + encoded + "&size=20"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header("X-Sharer-User-Id", "5"))
                 .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
 
-        var resp = itemClient.searchItems(5L, text);
+        var resp = itemClient.searchItems(5L, text, null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -11,6 +11,8 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -195,17 +197,122 @@ class ItemControllerTest {
 
     @Test
     void testSearchItems() throws Exception {
-        when(itemClient.searchItems(anyLong(), anyString())).thenReturn(ResponseEntity.ok(Map.of()));
+        when(itemClient.searchItems(anyLong(), anyString(), any(), anyInt())).thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", "10")
                         .param("text", "дрель"))
                 .andExpect(status().isOk());
 
-        verify(itemClient).searchItems(10L, "дрель");
+        verify(itemClient).searchItems(10L, "дрель", null, 20);
         verifyNoMoreInteractions(itemClient);
     }
 
+    @Test
+    void testSearchItems_withCursorAndSize_forwarded() throws Exception {
+        when(itemClient.searchItems(anyLong(), anyString(), any(), anyInt())).thenReturn(ResponseEntity.ok(Map.of()));
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("text", "дрель")
+                        .param("cursor", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).searchItems(10L, "дрель", "MTA", 5);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    void testSearchItems_sizeOutOfRange_badRequest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("text", "дрель")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("text", "дрель")
+                        .param("size", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void testSuggestItemNames_forwarded() throws Exception {
+        when(itemClient.suggestItemNames(anyLong(), anyString(), anyInt())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("prefix", "др"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).suggestItemNames(10L, "др", 10);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    void testSuggestItemNames_sizeOutOfRange_badRequest() throws Exception {
+        mvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("prefix", "др")
+                        .param("size", "21"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void testGetComments_forwarded() throws Exception {
+        when(itemClient.getComments(anyLong(), anyLong(), any(), anyInt())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/7/comments")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("cursor", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getComments(10L, 7L, "MTA", 5);
+        verifyNoMoreInteractions(itemClient);
+    }
+
+    @Test
+    void testGetComments_sizeOutOfRange_badRequest() throws Exception {
+        mvc.perform(get("/items/7/comments")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void testGetAvailability_forwarded() throws Exception {
+        when(itemClient.getAvailability(anyLong(), anyLong(), any(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/7/availability")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getAvailability(10L, 7L,
+                LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 0));
+    }
+
+    @Test
+    void testGetAvailability_emptyPeriod_badRequest() throws Exception {
+        mvc.perform(get("/items/7/availability")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("from", "2030-01-02T10:00:00")
+                        .param("to", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void testCreateComment() throws Exception {
         CommentDto commentDto = new CommentDto();
@@ -257,7 +364,7 @@ class ItemControllerTest {
 
     @Test
     void testSearchItems_emptyText_forwarded() throws Exception {
-        when(itemClient.searchItems(anyLong(), anyString()))
+        when(itemClient.searchItems(anyLong(), anyString(), any(), anyInt()))
                 .thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/items/search")
@@ -265,7 +372,7 @@ class ItemControllerTest {
                         .param("text", ""))
                 .andExpect(status().isOk());
 
-        verify(itemClient).searchItems(10L, "");
+        verify(itemClient).searchItems(10L, "", null, 20);
         verifyNoMoreInteractions(itemClient);
     }
 
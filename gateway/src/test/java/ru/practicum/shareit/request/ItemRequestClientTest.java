@@ -79,12 +79,12 @@ class ItemRequestClientTest {
     void testGetAll() {
         String responseJson = "[\n  {\"id\": 3},\n  {\"id\": 4},\n  {\"id\": 5}\n]";
 
-        server.expect(once(), requestTo("http://localhost:9090/requests"))
+        server.expect(once(), requestTo("http://localhost:9090/requests/all?size=3&cursor=abc"))
                 .andExpect(method(HttpMethod.GET))
                 .andExpect(header("X-Sharer-User-Id", "30"))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = client.getAll(30L);
+        var resp = client.getAll(30L, "abc", 3);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -110,6 +110,23 @@ class ItemRequestClientTest {
         assertThat(body.get("description").asText()).isEqualTo("Дрель");
     }
 
+    @Test
+    void testGetSuggestions() {
+        String responseJson = "[{\"id\": 3, \"name\": \"Дрель\", \"ownerId\": 8, \"score\": 1.0}]";
+
+        server.expect(once(), requestTo("http://localhost:9090/requests/77/suggestions"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "40"))
+                .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
+
+        var resp = client.getSuggestions(40L, 77L);
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+        JsonNode body = mapper.valueToTree(resp.getBody());
+        assertThat(body.get(0).get("id").asLong()).isEqualTo(3L);
+    }
+
     @Test
     void testCreate_serverValidationError_400() throws Exception {
         ItemRequestDto dto = new ItemRequestDto(); // description = null
@@ -86,16 +86,26 @@ class ItemRequestControllerTest {
 
     @Test
     void testGetAll() throws Exception {
-        when(itemRequestClient.getAll(anyLong())).thenReturn(ResponseEntity.ok(Map.of()));
+        when(itemRequestClient.getAll(anyLong(), any(), anyInt())).thenReturn(ResponseEntity.ok(Map.of()));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", "10"))
                 .andExpect(status().isOk());
 
-        verify(itemRequestClient).getAll(anyLong());
+        verify(itemRequestClient).getAll(10L, null, 20);
         verifyNoMoreInteractions(itemRequestClient);
     }
 
+    @Test
+    void testGetAllTooLargePage() throws Exception {
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", "10")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemRequestClient);
+    }
+
     @Test
     void testGetById() throws Exception {
         when(itemRequestClient.getById(anyLong(), anyLong()))
@@ -109,6 +119,19 @@ class ItemRequestControllerTest {
         verifyNoMoreInteractions(itemRequestClient);
     }
 
+    @Test
+    void testGetSuggestions() throws Exception {
+        when(itemRequestClient.getSuggestions(anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok(Map.of()));
+
+        mvc.perform(get("/requests/{requestId}/suggestions", 5L)
+                        .header("X-Sharer-User-Id", "10"))
+                .andExpect(status().isOk());
+
+        verify(itemRequestClient).getSuggestions(10L, 5L);
+        verifyNoMoreInteractions(itemRequestClient);
+    }
+
     @Test
     void testCreate_clientReturns404_isPropagated() throws Exception {
         ItemRequestDto dto = new ItemRequestDto();
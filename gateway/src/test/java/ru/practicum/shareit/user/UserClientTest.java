@@ -13,6 +13,9 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.client.ExpectedCount.once;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
@@ -88,11 +91,11 @@ class UserClientTest {
         String responseJson = "[{\"id\":1,\"name\":\"A\"}, {\"id\":2,\"name\":\"B\"}]";
 
 
-        server.expect(once(), requestTo("http://localhost:9090/users"))
+        server.expect(once(), requestTo("http://localhost:9090/users?size=20"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = client.findAll();
+        var resp = client.findAll(null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -100,6 +103,33 @@ class UserClientTest {
         assertThat(list).hasSize(2);
     }
 
+    @Test
+    void testFindAllNextPage() {
+        server.expect(once(), requestTo("http://localhost:9090/users?size=2&cursor=MjA"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[{\"id\":21,\"name\":\"A\"}]", MediaType.APPLICATION_JSON));
+
+        var resp = client.findAll("MjA", 2);
+
+        server.verify();
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+    }
+
+    @Test
+    void testExport_copiesTheServerStream() throws Exception {
+        String lines = "{\"id\":1,\"name\":\"A\"}\n{\"id\":2,\"name\":\"B\"}\n";
+        server.expect(once(), requestTo("http://localhost:9090/users/export"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("Accept", MediaType.APPLICATION_NDJSON_VALUE))
+                .andRespond(withSuccess(lines, MediaType.APPLICATION_NDJSON));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        client.export(out);
+
+        server.verify();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(lines);
+    }
+
     @Test
     void testGetUser() {
         String responseJson = "{\"id\":7,\"name\":\"User7\"}";
@@ -190,11 +220,11 @@ class UserClientTest {
     void testFindAll_sendsAcceptHeader_andReturnsArray() {
         String responseJson = "[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]";
 
-        server.expect(once(), requestTo("http://localhost:9090/users"))
+        server.expect(once(), requestTo("http://localhost:9090/users?size=20"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withSuccess(responseJson, MediaType.APPLICATION_JSON));
 
-        var resp = client.findAll();
+        var resp = client.findAll(null, 20);
 
         server.verify();
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
@@ -7,9 +7,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +20,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -83,16 +87,55 @@ class UserControllerTest {
 
     @Test
     void testFindAll() throws Exception {
-        when(userClient.findAll())
+        when(userClient.findAll(null, 20))
                 .thenReturn(ResponseEntity.ok(List.of(Map.of(), Map.of())));
 
         mvc.perform(get("/users"))
                 .andExpect(status().isOk());
 
-        verify(userClient).findAll();
+        verify(userClient).findAll(null, 20);
         verifyNoMoreInteractions(userClient);
     }
 
+    @Test
+    void testFindAllNextPage() throws Exception {
+        when(userClient.findAll("MjA", 50))
+                .thenReturn(ResponseEntity.ok(List.of(Map.of())));
+
+        mvc.perform(get("/users")
+                        .param("cursor", "MjA")
+                        .param("size", "50"))
+                .andExpect(status().isOk());
+
+        verify(userClient).findAll("MjA", 50);
+    }
+
+    @Test
+    void testFindAllTooLargePage() throws Exception {
+        mvc.perform(get("/users")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    void testExport() throws Exception {
+        String lines = "{\"id\":1,\"email\":\"a@ya.ru\",\"name\":\"A\"}\n";
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(lines.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userClient).export(any(OutputStream.class));
+
+        MvcResult result = mvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(lines));
+    }
+
     @Test
     void testGetUser() throws Exception {
         when(userClient.getUser(anyLong()))
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approved bookings that have not ended yet, per item, for rejecting overlapping periods before touching the database.
+ * Periods of one item never overlap, so they are kept ordered by start and a check is a single O(log n) lookup.
+ * An item is loaded from the database on first use and then follows approvals made through
+ * {@link #tryReserve}; approvals of other instances are caught by a check of the database after the write.
+ * Items are kept in a bounded cache and read anew after ttl, and those whose bookings are deleted are dropped.
+ */
+@Component
+public class ApprovedBookingIndex {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemCalendar> calendars;
+    private final Lock[] stripes = new Lock[LOCK_STRIPES];
+    // raised by every invalidation, so that a calendar loaded before one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ApprovedBookingIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.calendar.max-size:10000}") long maxSize,
+                                @Value("${shareit.booking.calendar.ttl:10m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, calendars, "approvedBookings");
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        return calendar(itemId).overlaps(start, end);
+    }
+
+    /**
+     * Reserves the period of an approved booking unless it overlaps another one. The reservation is dropped
+     * if the surrounding transaction does not commit.
+     */
+    public boolean tryReserve(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemCalendar calendar;
+        Lock lock = stripe(itemId);
+        lock.lock();
+        try {
+            // under the lock, so that the item is not read again in between and miss the reservation
+            calendar = calendar(itemId);
+            if (!calendar.tryReserve(bookingId, start, end)) {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        calendar.release(bookingId, start);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drops the items holding approved bookings of the booker, whose bookings are about to be deleted with them.
+     */
+    public void invalidateItemsBookedBy(long bookerId) {
+        invalidate(bookingRepository.findItemIdsOfApprovedEndingAfter(bookerId, LocalDateTime.now()));
+    }
+
+    /**
+     * Drops the items, right away and once more when the surrounding transaction completes, so that an item read
+     * again by a concurrent request before the commit does not keep the deleted bookings.
+     */
+    public void invalidate(Collection<Long> itemIds) {
+        generation.incrementAndGet();
+        calendars.invalidateAll(itemIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    calendars.invalidateAll(itemIds);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the cached item or loads it under the lock stripe of the item, outside of the cache, so that loading
+     * one item neither holds up requests for the others nor races a reservation of the same item. A calendar
+     * loaded while an invalidation ran serves the caller only and is not kept.
+     */
+    private ItemCalendar calendar(long itemId) {
+        ItemCalendar calendar = calendars.getIfPresent(itemId);
+        if (calendar != null) {
+            return calendar;
+        }
+        Lock lock = stripe(itemId);
+        lock.lock();
+        try {
+            calendar = calendars.getIfPresent(itemId);
+            if (calendar != null) {
+                return calendar;
+            }
+            long loadedAt = generation.get();
+            ItemCalendar loaded = new ItemCalendar();
+            for (Booking booking : bookingRepository.findApprovedEndingAfter(itemId, LocalDateTime.now())) {
+                loaded.tryReserve(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+            calendars.put(itemId, loaded);
+            // checked after the put, so that an invalidation either sees the calendar or raises the generation
+            if (generation.get() != loadedAt) {
+                calendars.asMap().remove(itemId, loaded);
+            }
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock stripe(long itemId) {
+        return stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+    }
+
+    private static class ItemCalendar {
+        private final TreeMap<LocalDateTime, Period> periods = new TreeMap<>();
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Period> before = periods.lowerEntry(end);
+            return before != null && before.getValue().end.isAfter(start);
+        }
+
+        synchronized boolean tryReserve(long bookingId, LocalDateTime start, LocalDateTime end) {
+            dropEnded();
+            if (overlaps(start, end)) {
+                return false;
+            }
+            periods.put(start, new Period(bookingId, end));
+            return true;
+        }
+
+        synchronized void release(long bookingId, LocalDateTime start) {
+            Period period = periods.get(start);
+            if (period != null && period.bookingId == bookingId) {
+                periods.remove(start);
+            }
+        }
+
+        private void dropEnded() {
+            LocalDateTime now = LocalDateTime.now();
+            while (!periods.isEmpty() && periods.firstEntry().getValue().end.isBefore(now)) {
+                periods.pollFirstEntry();
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Period {
+        private final long bookingId;
+        private final LocalDateTime end;
+    }
+}
@@ -1,8 +1,14 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
@@ -15,6 +21,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingEventStream bookingEventStream;
 
     @PostMapping
     public BookingDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -29,6 +36,27 @@ public class BookingController {
         return bookingService.approveOrReject(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResult> approveOrRejectAll(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                          @RequestBody List<BookingDecisionRequest> decisions) {
+        return bookingService.approveOrRejectAll(ownerId, decisions);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookerSummary(@RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        return bookingService.getBookerSummary(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingService.getOwnerSummary(ownerId);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingEventStream.subscribe(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable long bookingId) {
@@ -36,14 +64,20 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllByBookerId(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                             @RequestParam(name = "state", defaultValue = "ALL") BookingState state) {
-        return bookingService.getALLByBookerId(bookerId, state);
+    public ResponseEntity<List<BookingDto>> getAllByBookerId(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                             @RequestParam(name = "state", defaultValue = "ALL")
+                                                             BookingState state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return bookingService.getALLByBookerId(bookerId, state, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByItemOwnerId(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                @RequestParam(name = "state", defaultValue = "ALL") BookingState state) {
-        return bookingService.getAllByItemOwnerId(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getAllByItemOwnerId(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                @RequestParam(name = "state", defaultValue = "ALL")
+                                                                BookingState state,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return bookingService.getAllByItemOwnerId(ownerId, state, cursor, size).toResponseEntity();
     }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves bookings that have started or ended from the future and current counts of
+ * {@link BookingCounterRepository} to the current and past ones. The counts trail the clock by {@code lag},
+ * longer than any booking write transaction, so that a booking is never passed over by a reconciliation
+ * that started before the booking was committed.
+ */
+@Slf4j
+@Component
+public class BookingCounterReconciliationJob {
+
+    private final BookingCounterRepository bookingCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+
+    public BookingCounterReconciliationJob(BookingCounterRepository bookingCounterRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${shareit.booking.counters.lag:1m}") Duration lag) {
+        this.bookingCounterRepository = bookingCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = lag;
+    }
+
+    @Scheduled(cron = "${shareit.booking.counters.reconcile-cron:0 * * * * *}")
+    public void reconcileCounters() {
+        Integer shifted = reconcileUntil(LocalDateTime.now().minus(lag));
+        if (shifted != null && shifted > 0) {
+            log.debug("Booking counters reconciled, {} bookings changed their state.", shifted);
+        }
+    }
+
+    /**
+     * Brings the counters to {@code until} and returns how many bookings started or ended since the last time.
+     */
+    public Integer reconcileUntil(LocalDateTime until) {
+        return transactionTemplate.execute(status -> bookingCounterRepository.reconcile(until));
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-state booking counts of every booker and owner in {@code booking_counters}.
+ * Status counts are changed by the same transaction that changes a booking. Current, past and future counts
+ * are computed at the clock moment in {@code booking_counter_clock}, which {@link #reconcile} moves forward,
+ * shifting the counts of bookings that started or ended in between.
+ * A missing row is rebuilt from the bookings on the next read, so a row found wrong may simply be deleted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingCounterRepository {
+
+    public enum Role { BOOKER, OWNER }
+
+    private static final String CLOCK = "(SELECT reconciled_at FROM booking_counter_clock WHERE id = 1)";
+
+    private static final int FUTURE = 0;
+    private static final int CURRENT = 1;
+    private static final int PAST = 2;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<BookingSummaryDto> find(long userId, Role role) {
+        return jdbcTemplate.query("SELECT total, current_count, past, future, waiting, rejected " +
+                        "FROM booking_counters WHERE user_id = :userId AND role = :role",
+                new MapSqlParameterSource("userId", userId).addValue("role", role.name()),
+                (rs, rowNum) -> new BookingSummaryDto(rs.getLong("total"), rs.getLong("current_count"),
+                        rs.getLong("past"), rs.getLong("future"), rs.getLong("waiting"), rs.getLong("rejected")))
+                .stream().findFirst();
+    }
+
+    /**
+     * Counts the user's bookings into a new row, unless the row has been created in the meantime.
+     * A booking being created or decided concurrently finds no row to count itself into, so the count first
+     * takes the rows such a writer holds until it commits: a new booking locks its booker and its item through
+     * the foreign keys, and a decision locks the waiting booking. The count then waits for those writers and sees
+     * their bookings, and writers coming after it find the new row.
+     */
+    public void rebuild(long userId, Role role) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("userId", userId).addValue("role", role.name());
+        String bookingsOfUser = role == Role.BOOKER
+                ? "b.booker_id = :userId"
+                : "b.owner_id = :userId";
+        jdbcTemplate.queryForList(role == Role.BOOKER
+                ? "SELECT user_id FROM users WHERE user_id = :userId FOR UPDATE"
+                : "SELECT item_id FROM items WHERE owner_id = :userId FOR UPDATE", parameters, Long.class);
+        jdbcTemplate.queryForList("SELECT b.booking_id FROM bookings b WHERE " + bookingsOfUser + " " +
+                "AND b.status = 'WAITING' FOR UPDATE", parameters, Long.class);
+        jdbcTemplate.update("INSERT INTO booking_counters " +
+                        "(user_id, role, total, current_count, past, future, waiting, rejected) " +
+                        "SELECT :userId, :role, count(b.booking_id), " +
+                        "coalesce(sum(CASE WHEN b.start_date <= w.reconciled_at AND b.end_date > w.reconciled_at " +
+                        "THEN 1 ELSE 0 END), 0), " +
+                        "coalesce(sum(CASE WHEN b.end_date <= w.reconciled_at THEN 1 ELSE 0 END), 0), " +
+                        "coalesce(sum(CASE WHEN b.start_date > w.reconciled_at THEN 1 ELSE 0 END), 0), " +
+                        "coalesce(sum(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0), " +
+                        "coalesce(sum(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0) " +
+                        "FROM booking_counter_clock w LEFT JOIN bookings b ON " + bookingsOfUser + " " +
+                        "WHERE w.id = 1 GROUP BY w.reconciled_at ON CONFLICT DO NOTHING",
+                parameters);
+    }
+
+    /**
+     * Counts a new waiting booking for its booker and for the owner of its item.
+     */
+    public void onCreated(long bookerId, long ownerId, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("UPDATE booking_counters SET total = total + 1, waiting = waiting + 1, " +
+                        "future = future + CASE WHEN :start > " + CLOCK + " THEN 1 ELSE 0 END, " +
+                        "past = past + CASE WHEN :end <= " + CLOCK + " THEN 1 ELSE 0 END, " +
+                        "current_count = current_count + " +
+                        "CASE WHEN :start <= " + CLOCK + " AND :end > " + CLOCK + " THEN 1 ELSE 0 END " +
+                        "WHERE (user_id = :bookerId AND role = 'BOOKER') OR (user_id = :ownerId AND role = 'OWNER')",
+                new MapSqlParameterSource("bookerId", bookerId).addValue("ownerId", ownerId)
+                        .addValue("start", start).addValue("end", end));
+    }
+
+    /**
+     * Counts the bookings, all of them waiting until this transaction decided them, into the status.
+     */
+    public void onDecided(Collection<Long> bookingIds, BookingStatus status) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        SqlParameterSource parameters = new MapSqlParameterSource("bookingIds", bookingIds)
+                .addValue("rejected", status == BookingStatus.REJECTED ? 1 : 0);
+        jdbcTemplate.update(decided(Role.BOOKER, "SELECT b.booker_id AS user_id FROM bookings b " +
+                "WHERE b.booking_id IN (:bookingIds)"), parameters);
+        jdbcTemplate.update(decided(Role.OWNER, "SELECT i.owner_id AS user_id FROM bookings b " +
+                "JOIN items i ON i.item_id = b.item_id WHERE b.booking_id IN (:bookingIds)"), parameters);
+    }
+
+    private static String decided(Role role, String usersOfBookings) {
+        String count = "(SELECT count(*) FROM (" + usersOfBookings + ") u WHERE u.user_id = c.user_id)";
+        return "UPDATE booking_counters c SET waiting = c.waiting - " + count + ", " +
+                "rejected = c.rejected + :rejected * " + count + " " +
+                "WHERE c.role = '" + role.name() + "' AND c.user_id IN (" + usersOfBookings + ")";
+    }
+
+    /**
+     * Drops the rows of the owners of items booked by the booker, whose bookings are about to be deleted.
+     */
+    public void invalidateOwnersOfBooker(long bookerId) {
+        jdbcTemplate.update("DELETE FROM booking_counters WHERE role = 'OWNER' AND user_id IN " +
+                        "(SELECT i.owner_id FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                        "WHERE b.booker_id = :bookerId)",
+                new MapSqlParameterSource("bookerId", bookerId));
+    }
+
+    /**
+     * Moves the clock to {@code until}, shifting current, past and future counts of bookings that started or
+     * ended in between, and returns how many bookings were shifted. Concurrent calls take turns on the clock row.
+     */
+    public int reconcile(LocalDateTime until) {
+        LocalDateTime from = jdbcTemplate.queryForObject(
+                "SELECT reconciled_at FROM booking_counter_clock WHERE id = 1 FOR UPDATE", Map.of(),
+                LocalDateTime.class);
+        if (from == null || !until.isAfter(from)) {
+            return 0;
+        }
+        Map<CounterKey, long[]> shifts = new HashMap<>();
+        AtomicInteger shifted = new AtomicInteger();
+        jdbcTemplate.query("SELECT b.booker_id, i.owner_id, b.start_date, b.end_date FROM bookings b " +
+                        "JOIN items i ON i.item_id = b.item_id " +
+                        "WHERE (b.start_date > :from AND b.start_date <= :until) " +
+                        "OR (b.end_date > :from AND b.end_date <= :until)",
+                new MapSqlParameterSource("from", from).addValue("until", until), rs -> {
+                    LocalDateTime start = rs.getObject("start_date", LocalDateTime.class);
+                    LocalDateTime end = rs.getObject("end_date", LocalDateTime.class);
+                    int before = timeSlot(start, end, from);
+                    int after = timeSlot(start, end, until);
+                    for (CounterKey key : List.of(new CounterKey(rs.getLong("booker_id"), Role.BOOKER),
+                            new CounterKey(rs.getLong("owner_id"), Role.OWNER))) {
+                        long[] shift = shifts.computeIfAbsent(key, k -> new long[3]);
+                        shift[before]--;
+                        shift[after]++;
+                    }
+                    shifted.incrementAndGet();
+                });
+        SqlParameterSource[] updates = shifts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource("userId", entry.getKey().getUserId())
+                        .addValue("role", entry.getKey().getRole().name())
+                        .addValue("future", entry.getValue()[FUTURE])
+                        .addValue("current", entry.getValue()[CURRENT])
+                        .addValue("past", entry.getValue()[PAST]))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE booking_counters SET future = future + :future, " +
+                "current_count = current_count + :current, past = past + :past " +
+                "WHERE user_id = :userId AND role = :role", updates);
+        jdbcTemplate.update("UPDATE booking_counter_clock SET reconciled_at = :until WHERE id = 1",
+                new MapSqlParameterSource("until", until));
+        return shifted.get();
+    }
+
+    private static int timeSlot(LocalDateTime start, LocalDateTime end, LocalDateTime at) {
+        if (start.isAfter(at)) {
+            return FUTURE;
+        }
+        return end.isAfter(at) ? CURRENT : PAST;
+    }
+
+    @Data
+    private static class CounterKey {
+        private final long userId;
+        private final Role role;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What deciding on a booking needs to know, as returned by {@link BookingRepository#findDecisionRows}.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingDecisionRow {
+    private final Long id;
+    private final Long itemId;
+    private final Long ownerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
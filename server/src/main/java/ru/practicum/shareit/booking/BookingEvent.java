@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of the {@code booking_events} outbox: a booking of the owner's item was created or decided.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingEvent {
+    private final long id;
+    private final long bookingId;
+    private final long ownerId;
+    private final LocalDateTime created;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code booking_events} outbox. Events are appended by the transaction that changes the bookings,
+ * so that an event is seen exactly when the change is committed. Event ids are handed out from
+ * {@code booking_event_clock}, whose row stays locked until the appending transaction ends: an event id is
+ * committed only after all the lower ones, and events can be read after the highest id read so far.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingEventRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void append(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        List<long[]> bookings = jdbcTemplate.query("SELECT b.booking_id, i.owner_id FROM bookings b " +
+                        "JOIN items i ON i.item_id = b.item_id WHERE b.booking_id IN (:bookingIds) " +
+                        "ORDER BY b.booking_id",
+                new MapSqlParameterSource("bookingIds", bookingIds),
+                (rs, rowNum) -> new long[]{rs.getLong("booking_id"), rs.getLong("owner_id")});
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE booking_event_clock SET last_event_id = last_event_id + :count WHERE id = 1",
+                new MapSqlParameterSource("count", bookings.size()));
+        Long lastId = jdbcTemplate.queryForObject("SELECT last_event_id FROM booking_event_clock WHERE id = 1",
+                Map.of(), Long.class);
+        long firstId = lastId - bookings.size() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO booking_events (event_id, booking_id, owner_id, created_date) " +
+                        "VALUES (:eventId, :bookingId, :ownerId, :now)",
+                IntStream.range(0, bookings.size())
+                        .mapToObj(i -> new MapSqlParameterSource("eventId", firstId + i)
+                                .addValue("bookingId", bookings.get(i)[0])
+                                .addValue("ownerId", bookings.get(i)[1])
+                                .addValue("now", now))
+                        .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Returns the highest event id committed so far.
+     */
+    public long findLastId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(event_id), 0) FROM booking_events",
+                Map.of(), Long.class);
+    }
+
+    public List<BookingEvent> findAfter(long afterId) {
+        return jdbcTemplate.query("SELECT event_id, booking_id, owner_id, created_date FROM booking_events " +
+                        "WHERE event_id > :afterId ORDER BY event_id",
+                new MapSqlParameterSource("afterId", afterId),
+                (rs, rowNum) -> new BookingEvent(rs.getLong("event_id"), rs.getLong("booking_id"),
+                        rs.getLong("owner_id"), rs.getObject("created_date", LocalDateTime.class)));
+    }
+
+    public int deleteCreatedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM booking_events WHERE created_date < :before",
+                new MapSqlParameterSource("before", before));
+    }
+}
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.user.UserIdentityCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes bookings created or decided on any instance to the server-sent event streams of their item owners.
+ * Streams are asynchronous requests that hold no thread while idle; a single poller reads the
+ * {@code booking_events} outbox, loads the changed bookings with one query and writes them to the streams
+ * of connected owners only. Event ids are committed in order, so events are read after the highest id read so far
+ * and every one is sent once, however late its transaction commits. The poller has a thread of its own, so that
+ * the scheduled booking jobs do not hold it up.
+ * The poller only queues events: every stream has a bounded queue written out by a small pool of writers, so a
+ * client that reads slowly holds up its own stream alone, and one that lets queue-capacity events pile up is
+ * closed, to reconnect and read the bookings it missed from the lists.
+ */
+@Slf4j
+@Component
+public class BookingEventStream {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingRepository bookingRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final Duration timeout;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService poller;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // read by the poller only
+    private long lastEventId;
+
+    public BookingEventStream(BookingEventRepository bookingEventRepository,
+                              BookingRepository bookingRepository,
+                              UserIdentityCache userIdentityCache,
+                              @Value("${shareit.booking.events.stream-timeout:30m}") Duration timeout,
+                              @Value("${shareit.booking.events.poll-interval:500ms}") Duration pollInterval,
+                              @Value("${shareit.booking.events.retention:1d}") Duration retention,
+                              @Value("${shareit.booking.events.queue-capacity:100}") int queueCapacity,
+                              @Value("${shareit.booking.events.writer-threads:2}") int writerThreads) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.bookingRepository = bookingRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.timeout = timeout;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // a stream has at most one drain waiting, so the queue is bounded by the number of streams
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "booking-stream-writer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-stream-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        lastEventId = bookingEventRepository.findLastId();
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                publishNewEvents();
+            } catch (RuntimeException e) {
+                log.warn("Unable to publish booking events.", e);
+            }
+        }, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(long ownerId) {
+        userIdentityCache.get(ownerId, "Unable to stream bookings. User not found.");
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(ownerId, emitter);
+        subscribers.compute(ownerId, (id, ownerSubscribers) -> {
+            Set<Subscriber> result = ownerSubscribers == null ? ConcurrentHashMap.newKeySet() : ownerSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public synchronized void publishNewEvents() {
+        if (subscribers.isEmpty()) {
+            // nobody to send to, so only the last id is read, for the events of streams opened from now on
+            lastEventId = bookingEventRepository.findLastId();
+            return;
+        }
+        List<BookingEvent> read = bookingEventRepository.findAfter(lastEventId);
+        if (read.isEmpty()) {
+            return;
+        }
+        lastEventId = read.get(read.size() - 1).getId();
+        List<BookingEvent> events = read.stream()
+                .filter(event -> subscribers.containsKey(event.getOwnerId()))
+                .toList();
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<Long, BookingDto> bookings = bookingRepository.findRowsByIds(events.stream()
+                        .map(BookingEvent::getBookingId).collect(Collectors.toSet())).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toMap(BookingDto::getId, Function.identity()));
+        for (BookingEvent event : events) {
+            BookingDto booking = bookings.get(event.getBookingId());
+            if (booking != null) {
+                send(event.getOwnerId(), () -> SseEmitter.event().id(String.valueOf(event.getId())).name("booking")
+                        .data(booking, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies and finds those whose clients have gone.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.events.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        subscribers.keySet().forEach(ownerId -> send(ownerId, () -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    @Scheduled(cron = "${shareit.booking.events.cleanup-cron:0 0 * * * *}")
+    public void deleteOldEvents() {
+        bookingEventRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Queues the event to every stream of the owner; a builder is spent by one send, so each gets a new one.
+     */
+    private void send(long ownerId, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers.getOrDefault(ownerId, Set.of())) {
+            subscriber.offer(event.get());
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.ownerId, (id, ownerSubscribers) -> {
+            ownerSubscribers.remove(subscriber);
+            return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+        });
+    }
+
+    /**
+     * A stream with the events queued for it; at most one writer drains it at a time, keeping the events in order.
+     */
+    private final class Subscriber {
+        private final long ownerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                log.warn("Booking stream of owner {} does not keep up with its events and is closed.", ownerId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // an event queued after the last poll but before the flag was cleared found the drain still running
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+            unsubscribe(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
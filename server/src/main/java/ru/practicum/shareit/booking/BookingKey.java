@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position of a booking in start order, as returned by
+ * {@link BookingRepository#findWaitingStartedBefore} and {@link BookingRepository#findWaitingStartedBeforeFollowing}.
+ */
+public interface BookingKey {
+    Long getId();
+
+    LocalDateTime getStart();
+}
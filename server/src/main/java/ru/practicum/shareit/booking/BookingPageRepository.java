@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.TimeCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking list pages, see {@link BookingPageRepositoryImpl}.
+ */
+public interface BookingPageRepository {
+
+    /**
+     * Returns at most {@code limit} of the booker's bookings in the state, newest first, that follow the cursor.
+     * Bookings that started before {@code minStart} are left out; the bound is never null, so that a partitioned
+     * table is pruned by it in generic plans too.
+     */
+    List<BookingRow> findPageByBookerId(long bookerId, BookingState state, LocalDateTime now, LocalDateTime minStart,
+                                        TimeCursor after, int limit);
+
+    /**
+     * Same as {@link #findPageByBookerId} for bookings of the owner's items.
+     */
+    List<BookingRow> findPageByOwnerId(long ownerId, BookingState state, LocalDateTime now, LocalDateTime minStart,
+                                       TimeCursor after, int limit);
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.TimeCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads booking list pages with a statement written for the state and for whether a cursor is given, rather than
+ * one statement for all of them: every parameter of such a statement is bound to a typed value, and its only
+ * conditions are the state's own and the {@code (start, id)} row comparison, which the planner can turn into a
+ * seek on the {@code (booker_id, start_date desc, booking_id desc)} index, or on its {@code owner_id} twin for the
+ * owner's bookings, which carry their item's owner for that.
+ */
+class BookingPageRepositoryImpl implements BookingPageRepository {
+
+    private static final String BOOKING_ROW = "select new ru.practicum.shareit.booking.BookingRow(b.id, b.start, " +
+            "b.end, b.status, i.id, i.name, i.description, i.available, i.request.id, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingRow> findPageByBookerId(long bookerId, BookingState state, LocalDateTime now,
+                                               LocalDateTime minStart, TimeCursor after, int limit) {
+        return findPage("u.id = :userId", bookerId, state, now, minStart, after, limit);
+    }
+
+    @Override
+    public List<BookingRow> findPageByOwnerId(long ownerId, BookingState state, LocalDateTime now,
+                                              LocalDateTime minStart, TimeCursor after, int limit) {
+        return findPage("b.ownerId = :userId", ownerId, state, now, minStart, after, limit);
+    }
+
+    private List<BookingRow> findPage(String bookingsOfUser, long userId, BookingState state, LocalDateTime now,
+                                      LocalDateTime minStart, TimeCursor after, int limit) {
+        String jpql = BOOKING_ROW + "where " + bookingsOfUser + stateCondition(state) + " and b.start >= :minStart" +
+                (after.isFirst() ? "" : " and (b.start, b.id) < (:afterStart, :afterId)") +
+                " order by b.start desc, b.id desc";
+        TypedQuery<BookingRow> query = entityManager.createQuery(jpql, BookingRow.class)
+                .setParameter("userId", userId)
+                .setParameter("minStart", minStart)
+                .setMaxResults(limit);
+        if (isTimeState(state)) {
+            query.setParameter("now", now);
+        }
+        if (!after.isFirst()) {
+            query.setParameter("afterStart", after.getTime()).setParameter("afterId", after.getId());
+        }
+        return query.getResultList();
+    }
+
+    private static String stateCondition(BookingState state) {
+        return switch (state) {
+            case ALL -> "";
+            case CURRENT -> " and b.start < :now and b.end > :now";
+            case PAST -> " and b.end < :now";
+            case FUTURE -> " and b.start > :now";
+            case WAITING -> " and b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING";
+            case REJECTED -> " and b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED";
+        };
+    }
+
+    private static boolean isTimeState(BookingState state) {
+        return state == BookingState.CURRENT || state == BookingState.PAST || state == BookingState.FUTURE;
+    }
+}
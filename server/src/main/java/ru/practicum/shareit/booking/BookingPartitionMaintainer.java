@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of a bookings table created by {@code schema-bookings-partitioned.sql}.
+ * Partitions are created ahead of time, a month that already has rows in the default partition takes them over,
+ * and partitions of months past the retention period are detached and renamed into {@code bookings_archive_*}
+ * tables, which stay in the database for reports and dumps but are no longer read by the application.
+ * Each partition, the default one included, gets its own no-overlap constraint: PostgreSQL has no exclusion
+ * constraints across partitions, so approvals of periods spanning two months are guarded by the application
+ * checks only.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitioning.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+
+    private static final String PARTITION_PREFIX = "bookings_p";
+    private static final String ARCHIVE_PREFIX = "bookings_archive_p";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${shareit.booking.partitioning.months-ahead:3}") int monthsAhead,
+                                      @Value("${shareit.booking.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partitioning.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        maintain(YearMonth.now());
+    }
+
+    /**
+     * Creates missing partitions up to {@code monthsAhead} months after {@code current} and archives those
+     * ended more than {@code retentionMonths} months before it.
+     */
+    public void maintain(YearMonth current) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('bookings'))",
+                Boolean.class);
+        if (!Boolean.TRUE.equals(partitioned)) {
+            log.warn("Bookings table is not partitioned, its partitions are not maintained.");
+            return;
+        }
+        Set<YearMonth> existing = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('bookings')", String.class)) {
+            YearMonth month = monthOf(name);
+            if (month != null) {
+                existing.add(month);
+            }
+        }
+        YearMonth last = current.plusMonths(monthsAhead);
+        YearMonth first = current;
+        LocalDateTime oldestDefault = jdbcTemplate.queryForObject("SELECT min(start_date) FROM bookings_default",
+                LocalDateTime.class);
+        if (oldestDefault != null && YearMonth.from(oldestDefault).isBefore(first)) {
+            first = YearMonth.from(oldestDefault);
+        }
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                createPartition(month);
+            }
+        }
+        if (retentionMonths > 0) {
+            YearMonth retainedFrom = current.minusMonths(retentionMonths);
+            existing.stream().filter(month -> month.isBefore(retainedFrom)).forEach(this::archivePartition);
+        }
+    }
+
+    /**
+     * Creates the partition of the month out of its rows in the default partition, or empty. A month that fails
+     * is logged and left in the default partition until the next run, the following months are still created.
+     */
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + name +
+                        " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_default " +
+                        "WHERE start_date >= ? AND start_date < ? RETURNING *) " +
+                        "INSERT INTO " + name + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_no_overlap " +
+                        "EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) " +
+                        "WHERE (status = 'APPROVED')");
+                jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + name +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                return rows;
+            });
+            log.info("Bookings partition {} created with {} bookings.", name, moved);
+        } catch (DataAccessException e) {
+            log.error("Unable to create bookings partition {}, its bookings stay in the default partition.", name, e);
+        }
+    }
+
+    private void archivePartition(YearMonth month) {
+        String name = partitionName(month);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + name);
+                jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " +
+                        ARCHIVE_PREFIX + month.format(MONTH_FORMAT));
+            });
+            log.info("Bookings partition {} archived.", name);
+        } catch (DataAccessException e) {
+            log.error("Unable to archive bookings partition {}.", name, e);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH_FORMAT);
+    }
+
+    /**
+     * Returns the month of a monthly partition, or null for the default partition and other tables.
+     */
+    static YearMonth monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), MONTH_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
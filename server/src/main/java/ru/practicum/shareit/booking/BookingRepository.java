@@ -1,70 +1,126 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookerId(Long bookerId, Sort sort);
-
-    List<Booking> findAllByItemOwnerId(Long bookerId, Sort sort);
-
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long bookerId,
-                                                          LocalDateTime now,
-                                                          LocalDateTime oneMoreNow, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(Long bookerId,
-                                                             LocalDateTime now,
-                                                             LocalDateTime oneMoreNow, Sort sort);
-
-    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndEndBefore(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartAfter(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
-
-    @Query("""
-                select b from Booking b
-                where b.item.id in :itemIds
-                  and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED
-                  and b.start <= :now
-                order by b.start desc
-            """)
-    List<Booking> findPastForItems(@Param("itemIds") List<Long> itemIds,
-                                   @Param("now") LocalDateTime now);
-
-    @Query("""
-                select b from Booking b
-                where b.item.id in :itemIds
-                  and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED
-                  and b.start > :now
-            """)
-    List<Booking> findFutureForItems(@Param("itemIds") List<Long> itemIds,
-                                     @Param("now") LocalDateTime now);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingPageRepository {
+
+    @Query("select new ru.practicum.shareit.booking.BookingDecisionRow(b.id, i.id, i.owner.id, b.status, b.start, b.end) " +
+            "from Booking b join b.item i where b.id in :bookingIds")
+    List<BookingDecisionRow> findDecisionRows(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Sets the status of those bookings that are still waiting and returns how many were updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int decideWaiting(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") BookingStatus status);
+
+    /**
+     * Locks those of the bookings that are still waiting and returns their ids; a booking decided by a concurrent
+     * transaction is left out once that transaction commits.
+     */
+    @Query(value = "SELECT booking_id FROM bookings WHERE booking_id IN (:bookingIds) AND status = 'WAITING' " +
+            "FOR UPDATE", nativeQuery = true)
+    List<Long> lockWaiting(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Checks whether any of the bookings overlaps another approved booking of its item. It backs the approved
+     * booking index where no exclusion constraint does, as for periods crossing the months of a partitioned table.
+     */
+    @Query("select count(b) > 0 from Booking a, Booking b where a.id in :bookingIds and b.item.id = a.item.id " +
+            "and b.id <> a.id and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.start < a.end and b.end > a.start")
+    boolean existsApprovedOverlapping(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Returns waiting bookings that started before {@code now}, oldest first.
+     */
+    @Query("select b.id as id, b.start as start from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING and b.start < :now " +
+            "order by b.start, b.id")
+    List<BookingKey> findWaitingStartedBefore(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Same as {@link #findWaitingStartedBefore} for the bookings that follow {@code (afterStart, afterId)}.
+     */
+    @Query("select b.id as id, b.start as start from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING and b.start < :now " +
+            "and (b.start, b.id) > (:afterStart, :afterId) " +
+            "order by b.start, b.id")
+    List<BookingKey> findWaitingStartedBeforeFollowing(@Param("now") LocalDateTime now,
+                                                       @Param("afterStart") LocalDateTime afterStart,
+                                                       @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") long bookingId);
+
+    @Query("select new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, b.status, i.id, i.name, " +
+            "i.description, i.available, i.request.id, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u where b.id in :bookingIds")
+    List<BookingRow> findRowsByIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Returns at most two rows per item: the last approved booking started by {@code now} and the next one.
+     * Each of them is found by a single-row probe of the item along {@code bookings_item_start_idx}, rather than
+     * by numbering all the approved bookings of the items; the scalar subqueries stand for a lateral join, which
+     * the H2 test database does not run.
+     */
+    @Query(value = """
+                select b.item_id as "itemId", b.booking_id as "id", b.start_date as "start", b.end_date as "end",
+                       b.booker_id as "bookerId", b.booking_id = x.last_id as "lastBooking"
+                from (
+                    select i.item_id,
+                           (select l.booking_id from bookings l
+                            where l.item_id = i.item_id and l.status = 'APPROVED' and l.start_date <= :now
+                            order by l.start_date desc fetch first 1 rows only) as last_id,
+                           (select n.booking_id from bookings n
+                            where n.item_id = i.item_id and n.status = 'APPROVED' and n.start_date > :now
+                            order by n.start_date fetch first 1 rows only) as next_id
+                    from items i
+                    where i.item_id in (:itemIds)
+                ) x
+                join bookings b on b.booking_id in (x.last_id, x.next_id)
+            """, nativeQuery = true)
+    List<ItemBookingRow> findLastAndNextForItems(@Param("itemIds") List<Long> itemIds,
+                                                 @Param("now") LocalDateTime now);
+
+    /**
+     * Returns periods of the item's bookings with the given statuses that intersect {@code [from, to)}, by start.
+     * No such booking starts before {@code minStart}, which bounds the scan of {@code bookings_item_start_idx}
+     * from below when bookings are capped in length.
+     */
+    @Query("select new ru.practicum.shareit.item.dto.TimeSlotDto(b.start, b.end) from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.end > :from " +
+            "and b.start >= :minStart and b.start < :to " +
+            "order by b.start")
+    List<TimeSlotDto> findPeriodsWithin(@Param("itemId") long itemId,
+                                        @Param("statuses") Collection<BookingStatus> statuses,
+                                        @Param("minStart") LocalDateTime minStart,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select b from Booking b where b.item.id = :itemId " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b.end > :now")
+    List<Booking> findApprovedEndingAfter(@Param("itemId") long itemId, @Param("now") LocalDateTime now);
+
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED and b.end > :now")
+    List<Long> findItemIdsOfApprovedEndingAfter(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now);
 
     Optional<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
                                                                    LocalDateTime now);
-
-    Optional<Booking> findFirstByItemIdAndStatusAndStartBefore(Long itemId, BookingStatus status,
-                                                               LocalDateTime now, Sort sort);
-
-    Optional<Booking> findFirstByItemIdAndStatusAndStartAfter(Long itemId, BookingStatus status,
-                                                              LocalDateTime now, Sort sort);
 }
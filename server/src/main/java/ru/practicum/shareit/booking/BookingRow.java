@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking with the columns of its item and booker that a booking list shows,
+ * as returned by {@link BookingPageRepository#findPageByBookerId} and {@link BookingPageRepository#findPageByOwnerId}.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRow {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
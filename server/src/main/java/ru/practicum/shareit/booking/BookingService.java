@@ -1,9 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
+import ru.practicum.shareit.pagination.CursorPage;
+
 import java.util.List;
 
 public interface BookingService {
@@ -11,9 +16,15 @@ public interface BookingService {
 
     BookingDto approveOrReject(Long ownerId, Long bookingId, boolean approved);
 
+    List<BookingDecisionResult> approveOrRejectAll(long ownerId, List<BookingDecisionRequest> decisions);
+
     BookingDto getById(Long userId, Long bookingId);
 
-    List<BookingDto> getALLByBookerId(Long bookerId, BookingState state);
+    CursorPage<BookingDto> getALLByBookerId(Long bookerId, BookingState state, String cursor, int size);
+
+    CursorPage<BookingDto> getAllByItemOwnerId(Long ownerId, BookingState state, String cursor, int size);
+
+    BookingSummaryDto getBookerSummary(long bookerId);
 
-    List<BookingDto> getAllByItemOwnerId(Long ownerId, BookingState state);
+    BookingSummaryDto getOwnerSummary(long ownerId);
 }
@@ -2,26 +2,40 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.TimeCursor;
+import ru.practicum.shareit.user.UserIdentity;
+import ru.practicum.shareit.user.UserIdentityCache;
 import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,21 +43,130 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+    // lower bound of lists that are not bounded by start at all
+    private static final LocalDateTime ANY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final ItemRepository itemRepository;
+    private final ApprovedBookingIndex approvedBookingIndex;
+    private final BookingWriteExecutor bookingWriteExecutor;
+    private final BookingCounterRepository bookingCounterRepository;
+    private final BookingEventRepository bookingEventRepository;
+
+    // set by the partitioned profile only, bookings of any length are allowed without it
+    @Value("${shareit.booking.max-duration:}")
+    private Duration maxDuration;
+
+    @Value("${shareit.booking.expiry.cron:0 */5 * * * *}")
+    private String expiryCron;
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingDto create(NewBookingRequest newBookingRequest, long userId) {
         if (newBookingRequest.getStart() == null || newBookingRequest.getEnd() == null) {
             throw new BadRequestException("Start and end must be provided.");
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            log.warn("Unable to create booking. User not found.");
-            return new NotFoundException("User not found.");
-        });
-        Item item = itemRepository.findById(newBookingRequest.getItemId()).orElseThrow(() -> {
+        if (maxDuration != null
+                && Duration.between(newBookingRequest.getStart(), newBookingRequest.getEnd()).compareTo(maxDuration) > 0) {
+            log.warn("Unable to create booking. The booking is longer than {}.", maxDuration);
+            throw new BadRequestException("A booking can not be longer than " + maxDuration.toDays() + " days.");
+        }
+        return bookingWriteExecutor.execute(newBookingRequest::getItemId, () -> doCreate(newBookingRequest, userId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BookingDto approveOrReject(Long ownerId, Long bookingId, boolean approved) {
+        return bookingWriteExecutor.execute(() -> bookingRepository.findItemIdById(bookingId).orElseThrow(() -> {
+            log.warn("Unable to approve or reject booking. Booking not found.");
+            return new NotFoundException("Booking not found.");
+        }), () -> doApproveOrReject(ownerId, bookingId, approved));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BookingDecisionResult> approveOrRejectAll(long ownerId, List<BookingDecisionRequest> decisions) {
+        if (decisions == null || decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch must have between 1 and " + MAX_BATCH_SIZE + " decisions.");
+        }
+        if (decisions.stream().anyMatch(decision -> decision.getBookingId() == null || decision.getApproved() == null)) {
+            throw new BadRequestException("Booking id and decision must be provided.");
+        }
+        return bookingWriteExecutor.execute(() -> doApproveOrRejectAll(ownerId, decisions));
+    }
+
+    /**
+     * Checks all decisions against one read of the bookings and applies the valid ones with one update per
+     * resulting status. A booking decided concurrently in between fails the update count, so the batch is
+     * repeated from the read.
+     */
+    private List<BookingDecisionResult> doApproveOrRejectAll(long ownerId, List<BookingDecisionRequest> decisions) {
+        Map<Long, BookingDecisionRow> rows = bookingRepository.findDecisionRows(decisions.stream()
+                        .map(BookingDecisionRequest::getBookingId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(BookingDecisionRow::getId, Function.identity()));
+        Set<Long> seen = new HashSet<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        Set<Long> approvedItemIds = new HashSet<>();
+        List<BookingDecisionResult> results = new ArrayList<>();
+        for (BookingDecisionRequest decision : decisions) {
+            long bookingId = decision.getBookingId();
+            BookingDecisionRow row = rows.get(bookingId);
+            if (!seen.add(bookingId)) {
+                results.add(BookingDecisionResult.failed(bookingId, "The booking is already decided in this batch."));
+            } else if (row == null) {
+                results.add(BookingDecisionResult.failed(bookingId, "Booking not found."));
+            } else if (!row.getOwnerId().equals(ownerId)) {
+                results.add(BookingDecisionResult.failed(bookingId,
+                        "Only the owner of the item can approve or reject the booking."));
+            } else if (row.getStatus() != BookingStatus.WAITING) {
+                results.add(BookingDecisionResult.failed(bookingId, "Booking status is already decided."));
+            } else if (!decision.getApproved()) {
+                rejectedIds.add(bookingId);
+                results.add(BookingDecisionResult.decided(bookingId, BookingStatus.REJECTED));
+            } else if (!approvedBookingIndex.tryReserve(row.getItemId(), bookingId, row.getStart(), row.getEnd())) {
+                results.add(BookingDecisionResult.failed(bookingId, "The item is already booked for this period."));
+            } else {
+                approvedIds.add(bookingId);
+                approvedItemIds.add(row.getItemId());
+                results.add(BookingDecisionResult.decided(bookingId, BookingStatus.APPROVED));
+            }
+        }
+        int updated = 0;
+        try {
+            if (!approvedIds.isEmpty()) {
+                itemRepository.incrementVersions(approvedItemIds);
+                updated += bookingRepository.decideWaiting(approvedIds, BookingStatus.APPROVED);
+                if (bookingRepository.existsApprovedOverlapping(approvedIds)) {
+                    log.warn("Unable to approve bookings. An item is already booked for one of the periods.");
+                    throw new ConflictException("An item is already booked for one of the periods.");
+                }
+            }
+            if (!rejectedIds.isEmpty()) {
+                updated += bookingRepository.decideWaiting(rejectedIds, BookingStatus.REJECTED);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // bookings_no_overlap, for an approval made by another instance
+            log.warn("Unable to approve bookings. An item is already booked for one of the periods.");
+            throw new ConflictException("An item is already booked for one of the periods.");
+        }
+        if (updated != approvedIds.size() + rejectedIds.size()) {
+            throw new OptimisticLockingFailureException("Bookings of the batch were decided concurrently.");
+        }
+        bookingCounterRepository.onDecided(approvedIds, BookingStatus.APPROVED);
+        bookingCounterRepository.onDecided(rejectedIds, BookingStatus.REJECTED);
+        bookingEventRepository.append(approvedIds);
+        bookingEventRepository.append(rejectedIds);
+        return results;
+    }
+
+    private BookingDto doCreate(NewBookingRequest newBookingRequest, long userId) {
+        UserIdentity booker = userIdentityCache.get(userId, "Unable to create booking. User not found.");
+        Item item = itemRepository.findAndIncrementVersionById(newBookingRequest.getItemId()).orElseThrow(() -> {
             log.warn("Unable to create booking. Item not found.");
             return new NotFoundException("Item not found.");
         });
@@ -55,14 +178,19 @@ public class BookingServiceImpl implements BookingService {
             log.warn("Unable to create booking. Owner can not book.");
             throw new BadRequestException("Owner can not book.");
         }
+        if (approvedBookingIndex.overlaps(item.getId(), newBookingRequest.getStart(), newBookingRequest.getEnd())) {
+            log.warn("Unable to create booking. The item is already booked for this period.");
+            throw new ConflictException("The item is already booked for this period.");
+        }
 
-        Booking booking = bookingRepository.save(BookingMapper.toBooking(newBookingRequest, item, user));
-        return BookingMapper.toBookingDto(booking);
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(newBookingRequest, item,
+                userRepository.getReferenceById(userId)));
+        bookingCounterRepository.onCreated(userId, item.getOwner().getId(), booking.getStart(), booking.getEnd());
+        bookingEventRepository.append(List.of(booking.getId()));
+        return BookingMapper.toBookingDto(booking, UserMapper.mapToUserDto(booker));
     }
 
-    @Override
-    @Transactional
-    public BookingDto approveOrReject(Long ownerId, Long bookingId, boolean approved) {
+    private BookingDto doApproveOrReject(Long ownerId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
             log.warn("Unable to approve or reject booking. Booking not found.");
             return new NotFoundException("Booking not found.");
@@ -75,12 +203,34 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new BadRequestException("Booking status is already decided.");
         }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
+        if (!approved) {
             booking.setStatus(BookingStatus.REJECTED);
+            bookingCounterRepository.onDecided(List.of(bookingId), BookingStatus.REJECTED);
+            bookingEventRepository.append(List.of(bookingId));
+            return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        }
+        // approvals and creations of one item take turns through the item version
+        itemRepository.findAndIncrementVersionById(booking.getItem().getId());
+        if (!approvedBookingIndex.tryReserve(booking.getItem().getId(), booking.getId(), booking.getStart(),
+                booking.getEnd())) {
+            log.warn("Unable to approve booking. The item is already booked for this period.");
+            throw new ConflictException("The item is already booked for this period.");
+        }
+        booking.setStatus(BookingStatus.APPROVED);
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            // bookings_no_overlap, for an approval made by another instance
+            log.warn("Unable to approve booking. The item is already booked for this period.");
+            throw new ConflictException("The item is already booked for this period.");
         }
-        booking = bookingRepository.save(booking);
+        // the index may miss an approval of another instance, and no constraint covers every period
+        if (bookingRepository.existsApprovedOverlapping(List.of(bookingId))) {
+            log.warn("Unable to approve booking. The item is already booked for this period.");
+            throw new ConflictException("The item is already booked for this period.");
+        }
+        bookingCounterRepository.onDecided(List.of(bookingId), BookingStatus.APPROVED);
+        bookingEventRepository.append(List.of(bookingId));
         return BookingMapper.toBookingDto(booking);
     }
 
@@ -99,50 +249,83 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getALLByBookerId(Long bookerId, BookingState state) {
+    public CursorPage<BookingDto> getALLByBookerId(Long bookerId, BookingState state, String cursor, int size) {
+        checkPageSize(size);
+        TimeCursor after = TimeCursor.decode(cursor);
         LocalDateTime now = LocalDateTime.now();
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start");
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL -> bookings = bookingRepository
-                    .findAllByBookerId(bookerId, newestFirst);
-            case CURRENT -> bookings = bookingRepository
-                    .findByBookerIdAndStartBeforeAndEndAfter(bookerId, now, now, newestFirst);
-            case PAST -> bookings = bookingRepository
-                    .findByBookerIdAndEndBefore(bookerId, now, newestFirst);
-            case FUTURE -> bookings = bookingRepository
-                    .findByBookerIdAndStartAfter(bookerId, now, newestFirst);
-            case WAITING -> bookings = bookingRepository
-                    .findByBookerIdAndStatus(bookerId, BookingStatus.WAITING, newestFirst);
-            case REJECTED -> bookings = bookingRepository
-                    .findByBookerIdAndStatus(bookerId, BookingStatus.REJECTED, newestFirst);
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return toPage(bookingRepository.findPageByBookerId(bookerId, state, now, earliestStart(state, now), after,
+                size + 1), size);
     }
 
     @Override
-    public List<BookingDto> getAllByItemOwnerId(Long ownerId, BookingState state) {
-        userRepository.findById(ownerId).orElseThrow(() -> {
-            log.warn("Unable to get bookings. User not found.");
-            return new NotFoundException("User not found.");
-        });
+    public CursorPage<BookingDto> getAllByItemOwnerId(Long ownerId, BookingState state, String cursor, int size) {
+        checkPageSize(size);
+        TimeCursor after = TimeCursor.decode(cursor);
+        userIdentityCache.get(ownerId, "Unable to get bookings. User not found.");
         LocalDateTime now = LocalDateTime.now();
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start");
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL -> bookings = bookingRepository
-                    .findAllByItemOwnerId(ownerId, newestFirst);
-            case CURRENT -> bookings = bookingRepository
-                    .findByItemOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, newestFirst);
-            case PAST -> bookings = bookingRepository
-                    .findByItemOwnerIdAndEndBefore(ownerId, now, newestFirst);
-            case FUTURE -> bookings = bookingRepository
-                    .findByItemOwnerIdAndStartAfter(ownerId, now, newestFirst);
-            case WAITING -> bookings = bookingRepository
-                    .findByItemOwnerIdAndStatus(ownerId, BookingStatus.WAITING, newestFirst);
-            case REJECTED -> bookings = bookingRepository
-                    .findByItemOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, newestFirst);
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return toPage(bookingRepository.findPageByOwnerId(ownerId, state, now, earliestStart(state, now), after,
+                size + 1), size);
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryDto getBookerSummary(long bookerId) {
+        return getSummary(bookerId, BookingCounterRepository.Role.BOOKER);
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryDto getOwnerSummary(long ownerId) {
+        return getSummary(ownerId, BookingCounterRepository.Role.OWNER);
+    }
+
+    /**
+     * Reads the counters row of the user, counting it from the bookings first if it is missing.
+     */
+    private BookingSummaryDto getSummary(long userId, BookingCounterRepository.Role role) {
+        return bookingCounterRepository.find(userId, role).orElseGet(() -> {
+            userIdentityCache.get(userId, "Unable to get booking summary. User not found.");
+            bookingCounterRepository.rebuild(userId, role);
+            return bookingCounterRepository.find(userId, role).orElseThrow();
+        });
+    }
+
+    /**
+     * Returns the earliest start a booking in the state can have. When bookings are capped at the max duration,
+     * current bookings are all among the recent ones, and so are waiting ones while the expiry job expires them
+     * soon after their start; a partitioned bookings table is then read only from the partitions that may hold
+     * them. Without the cap only future bookings are bounded.
+     */
+    private LocalDateTime earliestStart(BookingState state, LocalDateTime now) {
+        if (state == BookingState.FUTURE) {
+            return now;
+        }
+        if (maxDuration == null) {
+            return ANY_START;
+        }
+        return switch (state) {
+            case CURRENT -> now.minus(maxDuration);
+            case WAITING -> Scheduled.CRON_DISABLED.equals(expiryCron) ? ANY_START : now.minus(maxDuration);
+            default -> ANY_START;
+        };
+    }
+
+    private static void checkPageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * Builds a page from rows read one past its size, the extra row only telling that there is a next page.
+     */
+    private static CursorPage<BookingDto> toPage(List<BookingRow> rows, int size) {
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            BookingRow last = rows.getLast();
+            nextCursor = TimeCursor.after(last.getStart(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(BookingMapper::toBookingDto).toList(), nextCursor);
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * The last or next approved booking of an item, as returned by {@link BookingRepository#findLastAndNextForItems}.
+ */
+public interface ItemBookingRow {
+    Long getItemId();
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getBookerId();
+
+    Boolean getLastBooking();
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves bookings that are still waiting when their period has started to {@link BookingStatus#EXPIRED}.
+ * Bookings are walked in start order through the {@code (status, start_date)} index, one chunk per short
+ * transaction with a pause in between, so that the job never holds locks for long next to live traffic.
+ * A booking approved or rejected in the meantime is left as it is, and gets no expiry event.
+ */
+@Slf4j
+@Component
+public class WaitingBookingExpiryJob {
+
+    private final BookingRepository bookingRepository;
+    private final BookingCounterRepository bookingCounterRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pause;
+
+    public WaitingBookingExpiryJob(BookingRepository bookingRepository,
+                                   BookingCounterRepository bookingCounterRepository,
+                                   BookingEventRepository bookingEventRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                                   @Value("${shareit.booking.expiry.pause:100ms}") Duration pause) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCounterRepository = bookingCounterRepository;
+        this.bookingEventRepository = bookingEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${shareit.booking.expiry.cron:0 */5 * * * *}")
+    public void expireStaleBookings() {
+        int expired = expireStartedBefore(LocalDateTime.now());
+        if (expired > 0) {
+            log.info("{} waiting bookings expired.", expired);
+        }
+    }
+
+    /**
+     * Expires waiting bookings that started before {@code now} and returns how many were expired.
+     */
+    public int expireStartedBefore(LocalDateTime now) {
+        AtomicInteger expired = new AtomicInteger();
+        BookingKey last = null;
+        while (true) {
+            BookingKey after = last;
+            List<BookingKey> chunk = transactionTemplate.execute(status -> {
+                List<BookingKey> keys = after == null
+                        ? bookingRepository.findWaitingStartedBefore(now, PageRequest.of(0, batchSize))
+                        : bookingRepository.findWaitingStartedBeforeFollowing(now, after.getStart(), after.getId(),
+                        PageRequest.of(0, batchSize));
+                if (!keys.isEmpty()) {
+                    // those decided since they were read are left out, and the rest can not be decided until commit
+                    List<Long> ids = bookingRepository.lockWaiting(keys.stream().map(BookingKey::getId).toList());
+                    if (!ids.isEmpty()) {
+                        bookingRepository.decideWaiting(ids, BookingStatus.EXPIRED);
+                        bookingCounterRepository.onDecided(ids, BookingStatus.EXPIRED);
+                        bookingEventRepository.append(ids);
+                        expired.addAndGet(ids.size());
+                    }
+                }
+                return keys;
+            });
+            if (chunk == null || chunk.size() < batchSize || !pause()) {
+                return expired.get();
+            }
+            last = chunk.getLast();
+        }
+    }
+
+    private boolean pause() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,29 +2,59 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingRow;
+import ru.practicum.shareit.booking.ItemBookingRow;
 import ru.practicum.shareit.booking.dto.BookingSmallDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.item.ItemDetailsRow;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
+        return toBookingDto(booking, UserMapper.mapToUserDto(booking.getBooker()));
+    }
+
+    public static BookingDto toBookingDto(Booking booking, UserDto booker) {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setId(booking.getId());
         bookingDto.setStart(booking.getStart());
         bookingDto.setEnd(booking.getEnd());
         bookingDto.setStatus(booking.getStatus());
-        bookingDto.setBooker(UserMapper.mapToUserDto(booking.getBooker()));
+        bookingDto.setBooker(booker);
         bookingDto.setItem(ItemMapper.toItemDto(booking.getItem()));
         return bookingDto;
     }
 
+    public static BookingDto toBookingDto(BookingRow row) {
+        UserDto booker = new UserDto();
+        booker.setId(row.getBookerId());
+        booker.setName(row.getBookerName());
+        booker.setEmail(row.getBookerEmail());
+        ItemDto item = new ItemDto();
+        item.setId(row.getItemId());
+        item.setName(row.getItemName());
+        item.setDescription(row.getItemDescription());
+        item.setAvailable(row.isItemAvailable());
+        item.setRequestId(row.getItemRequestId());
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(row.getId());
+        bookingDto.setStart(row.getStart());
+        bookingDto.setEnd(row.getEnd());
+        bookingDto.setStatus(row.getStatus());
+        bookingDto.setBooker(booker);
+        bookingDto.setItem(item);
+        return bookingDto;
+    }
+
     public static Booking toBooking(NewBookingRequest newBookingRequest, Item item, User user) {
         Booking booking = new Booking();
         booking.setStart(newBookingRequest.getStart());
@@ -43,4 +73,22 @@ public class BookingMapper {
         bookingSmallDto.setBookerId(booking.getBooker().getId());
         return bookingSmallDto;
     }
+
+    public static BookingSmallDto toBookingSmallDto(ItemBookingRow row) {
+        BookingSmallDto bookingSmallDto = new BookingSmallDto();
+        bookingSmallDto.setId(row.getId());
+        bookingSmallDto.setStart(row.getStart());
+        bookingSmallDto.setEnd(row.getEnd());
+        bookingSmallDto.setBookerId(row.getBookerId());
+        return bookingSmallDto;
+    }
+
+    public static BookingSmallDto toBookingSmallDto(ItemDetailsRow row) {
+        BookingSmallDto bookingSmallDto = new BookingSmallDto();
+        bookingSmallDto.setId(row.getBookingId());
+        bookingSmallDto.setStart(row.getBookingStart());
+        bookingSmallDto.setEnd(row.getBookingEnd());
+        bookingSmallDto.setBookerId(row.getBookerId());
+        return bookingSmallDto;
+    }
 }
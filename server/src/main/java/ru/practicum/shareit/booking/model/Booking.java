@@ -33,6 +33,12 @@ public class Booking {
     @ToString.Exclude
     private Item item;
 
+    /**
+     * Owner of the item, copied from it so that the owner's bookings are read along their own index.
+     */
+    @Column(name = "owner_id", updatable = false)
+    private Long ownerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     @ToString.Exclude
@@ -41,6 +47,16 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    @Version
+    private Long version;
+
+    @PrePersist
+    void copyOwner() {
+        if (ownerId == null && item != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -1,16 +1,51 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
-import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId, Sort sort);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<CommentDto> findDtosByItemId(@Param("itemId") Long itemId, Pageable pageable);
 
-    @Query("select c from Comment c where c.item.id in :itemIds order by c.created desc")
-    List<Comment> findAllByItemIds(List<Long> itemIds, Sort sort);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId " +
+            "and (c.created, c.id) < (:created, :id) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findDtosByItemIdBefore(@Param("itemId") Long itemId, @Param("created") LocalDateTime created,
+                                            @Param("id") long id, Pageable pageable);
+
+    /**
+     * Returns the {@code limit} latest comments of every item, each with the item's total comment count.
+     * Every item is probed along {@code comments_item_created_idx} for the creation time of its {@code limit}-th
+     * latest comment and for its count, and only its comments from that time on are read. Comments tied on that
+     * time may come on top of the limit, so the caller trims each item's rows to it.
+     */
+    @Query(value = """
+                select c.item_id as "itemId", c.comment_id as "id", c.text as "text", u.name as "authorName",
+                       c.created_date as "created", x.comment_count as "commentCount"
+                from (
+                    select i.item_id,
+                           (select count(*) from comments n where n.item_id = i.item_id) as comment_count,
+                           coalesce((select k.created_date from comments k
+                                     where k.item_id = i.item_id
+                                     order by k.created_date desc, k.comment_id desc
+                                     offset (:limit - 1) rows fetch next 1 rows only),
+                                    timestamp '0001-01-01 00:00:00') as cutoff
+                    from items i
+                    where i.item_id in (:itemIds)
+                ) x
+                join comments c on c.item_id = x.item_id and c.created_date >= x.cutoff
+                join users u on u.user_id = c.author_id
+                order by c.item_id, c.created_date desc, c.comment_id desc
+            """, nativeQuery = true)
+    List<ItemCommentRow> findLatestForItems(@Param("itemIds") List<Long> itemIds, @Param("limit") int limit);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An item offered in answer to an item request, as returned by {@link ItemRepository#findAnswersByRequestIds}.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemAnswerRow {
+    private final Long requestId;
+    private final Long id;
+    private final String name;
+    private final Long ownerId;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of the latest comments of an item with the item's total comment count,
+ * as returned by {@link CommentRepository#findLatestForItems}.
+ */
+public interface ItemCommentRow {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    Long getCommentCount();
+}
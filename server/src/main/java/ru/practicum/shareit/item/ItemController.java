@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -40,9 +44,36 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.searchItems(text, userId);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.searchItems(text, userId, cursor, size).toResponseEntity();
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.suggestItemNames(prefix, userId, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return itemService.getComments(itemId, userId, cursor, size).toResponseEntity();
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @PathVariable long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        return itemService.getAvailability(itemId, userId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
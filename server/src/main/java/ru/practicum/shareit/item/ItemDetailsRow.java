@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of {@link ItemRepository#findDetails}: the item, joined with its last or next approved booking if any.
+ */
+public interface ItemDetailsRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getBookingId();
+
+    LocalDateTime getBookingStart();
+
+    LocalDateTime getBookingEnd();
+
+    Long getBookerId();
+
+    Boolean getLastBooking();
+
+    Long getCommentCount();
+}
@@ -1,22 +1,97 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.item.search.ItemSearchHit;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    /**
+     * Loads the item and raises its version on commit, so that concurrent booking writes of the item conflict.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findAndIncrementVersionById(@Param("itemId") long itemId);
+
+    /**
+     * Raises item versions the way {@link #findAndIncrementVersionById} does, for bulk booking writes.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.version = i.version + 1 where i.id in :itemIds")
+    int incrementVersions(@Param("itemIds") Collection<Long> itemIds);
+
     @Query(" select i from Item i " +
-            "where i.available = true and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text);
+            "where i.available = true and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            " or upper(i.description) like upper(concat('%', :text, '%'))) and i.id > :afterId order by i.id")
+    List<Item> search(@Param("text") String text, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(value = """
+                select i.item_id as id, i.name as name, i.description as description, i.is_available as available,
+                       i.request_id as "requestId", ts_rank(i.search_vector, q.query) as score
+                from items i, websearch_to_tsquery('russian', :text) as q(query)
+                where i.is_available = true
+                  and i.search_vector @@ q.query
+                  and (ts_rank(i.search_vector, q.query) < :afterScore
+                       or (ts_rank(i.search_vector, q.query) = :afterScore and i.item_id > :afterId))
+                order by score desc, i.item_id
+                limit :limit
+            """, nativeQuery = true)
+    List<ItemSearchHit> fullTextSearch(@Param("text") String text, @Param("afterScore") float afterScore,
+                                       @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(" select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description, i.available) " +
+            "from Item i where i.id > :afterId order by i.id")
+    List<IndexedItem> findIndexBatch(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Returns one row per found booking (the last approved one started by {@code now} and the next one), or a single
+     * row with empty booking columns. Bookings are joined only when {@code userId} owns the item, and each of
+     * the two is found by a single-row probe along {@code bookings_item_start_idx}.
+     * Every row also carries the number of comments of the item.
+     */
+    @Query(value = """
+                select i.item_id as "id", i.name as "name", i.description as "description",
+                       i.is_available as "available", b.booking_id as "bookingId", b.start_date as "bookingStart",
+                       b.end_date as "bookingEnd", b.booker_id as "bookerId", b.is_last as "lastBooking",
+                       (select count(*) from comments c where c.item_id = i.item_id) as "commentCount"
+                from items i
+                left join (
+                    select booking_id, item_id, start_date, end_date, booker_id, start_date <= :now as is_last
+                    from bookings
+                    where booking_id in (
+                        (select l.booking_id from bookings l
+                         where l.item_id = :itemId and l.status = 'APPROVED' and l.start_date <= :now
+                         order by l.start_date desc fetch first 1 rows only),
+                        (select n.booking_id from bookings n
+                         where n.item_id = :itemId and n.status = 'APPROVED' and n.start_date > :now
+                         order by n.start_date fetch first 1 rows only))
+                ) b on b.item_id = i.item_id and i.owner_id = :userId
+                where i.item_id = :itemId
+            """, nativeQuery = true)
+    List<ItemDetailsRow> findDetails(@Param("itemId") long itemId, @Param("userId") long userId,
+                                     @Param("now") LocalDateTime now);
 
     List<Item> findAllByOwnerIdOrderById(Long userId);
 
-    List<Item> findAllByRequestId(Long requestorId);
+    /**
+     * Returns the items offered in answer to any of the requests, without loading the items or their owners.
+     */
+    @Query(" select new ru.practicum.shareit.item.ItemAnswerRow(i.request.id, i.id, i.name, i.owner.id) " +
+            "from Item i where i.request.id in :requestIds order by i.id")
+    List<ItemAnswerRow> findAnswersByRequestIds(@Param("requestIds") Collection<Long> requestIds);
 
 }
@@ -3,7 +3,10 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,7 +18,13 @@ public interface ItemService {
 
     List<ItemWithBookingDto> getItems(long userId);
 
-    List<ItemDto> searchItems(String text, long userId);
+    CursorPage<ItemDto> searchItems(String text, long userId, String cursor, int size);
+
+    List<String> suggestItemNames(String prefix, long userId, int size);
+
+    CursorPage<CommentDto> getComments(long itemId, long userId, String cursor, int size);
+
+    List<TimeSlotDto> getAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to);
 
     CommentDto createComment(CommentDto commentDto, long authorId, long itemId);
 }
@@ -2,30 +2,48 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingWriteExecutor;
+import ru.practicum.shareit.booking.ItemBookingRow;
 import ru.practicum.shareit.booking.dto.BookingSmallDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemNameVocabulary;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchMode;
+import ru.practicum.shareit.item.search.SearchCursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserIdentity;
+import ru.practicum.shareit.user.UserIdentityCache;
 import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,20 +52,43 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime ANY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final BookingRepository bookingRepository;
+    private final BookingWriteExecutor bookingWriteExecutor;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemNameVocabulary itemNameVocabulary;
+
+    @Value("${shareit.item.latest-comments:10}")
+    private int latestComments;
+
+    @Value("${shareit.search.mode:index}")
+    private ItemSearchMode searchMode;
+
+    // set by the partitioned profile only, as in BookingServiceImpl
+    @Value("${shareit.booking.max-duration:}")
+    private Duration maxBookingDuration;
+
+    private boolean fullTextSupported;
+
+    @Value("${spring.datasource.url}")
+    void setDatasourceUrl(String datasourceUrl) {
+        fullTextSupported = DatabaseDriver.fromJdbcUrl(datasourceUrl) == DatabaseDriver.POSTGRESQL;
+    }
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            log.warn("Unable to create item. User not found.");
-            return new NotFoundException("User not found.");
-        });
-        Item item = ItemMapper.toItem(itemDto, user);
+        userIdentityCache.get(userId, "Unable to create item. User not found.");
+        Item item = ItemMapper.toItem(itemDto, userRepository.getReferenceById(userId));
         if (itemDto.getRequestId() != null) {
             ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElseThrow(() -> {
                 log.warn("Unable to create item. Request not found.");
@@ -58,9 +99,17 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toItemDto(itemRepository.save(item));
     }
 
+    /**
+     * Runs as a booking write of the item: bookings raise the item version, so an edit that races one is
+     * repeated rather than failed.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemDto update(ItemDto itemDto, long itemId, long userId) {
+        return bookingWriteExecutor.execute(() -> itemId, () -> doUpdate(itemDto, itemId, userId));
+    }
+
+    private ItemDto doUpdate(ItemDto itemDto, long itemId, long userId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
             log.warn("Unable to update item. Item not found.");
             return new NotFoundException("Item not found.");
@@ -83,32 +132,26 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemWithBookingDto getItem(long id, long userId) {
-        Item item = itemRepository.findById(id).orElseThrow(() -> {
+        List<ItemDetailsRow> rows = itemRepository.findDetails(id, userId, LocalDateTime.now());
+        if (rows.isEmpty()) {
             log.warn("Unable to get item. Item not found.");
-            return new NotFoundException("Item not found.");
-        });
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start");
-        Sort oldestFirst = Sort.by(Sort.Direction.DESC, "start");
-        BookingSmallDto lastBookingSmallDto = null;
-        BookingSmallDto nextBookingSmallDto = null;
-        if (item.getOwner().getId().equals(userId)) {
-            Optional<Booking> lastBooking = bookingRepository
-                    .findFirstByItemIdAndStatusAndStartBefore(item.getId(),
-                            BookingStatus.APPROVED, LocalDateTime.now(), newestFirst);
-            if (lastBooking.isPresent()) {
-                lastBookingSmallDto = BookingMapper.toBookingSmallDto(lastBooking.get());
+            throw new NotFoundException("Item not found.");
+        }
+        BookingSmallDto lastBooking = null;
+        BookingSmallDto nextBooking = null;
+        for (ItemDetailsRow row : rows) {
+            if (row.getBookingId() == null) {
+                continue;
             }
-            Optional<Booking> nextBooking = bookingRepository
-                    .findFirstByItemIdAndStatusAndStartAfter(item.getId(),
-                            BookingStatus.APPROVED, LocalDateTime.now(), oldestFirst);
-            if (nextBooking.isPresent()) {
-                nextBookingSmallDto = BookingMapper.toBookingSmallDto(nextBooking.get());
+            if (row.getLastBooking()) {
+                lastBooking = BookingMapper.toBookingSmallDto(row);
+            } else {
+                nextBooking = BookingMapper.toBookingSmallDto(row);
             }
         }
-        ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(item, lastBookingSmallDto, nextBookingSmallDto);
-        itemWithBookingDto.setComments(commentRepository.findAllByItemId(item.getId(),
-                        Sort.by(Sort.Direction.DESC, "created"))
-                .stream().map(CommentMapper::toCommentDto).toList());
+        ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(rows.getFirst(), lastBooking,
+                nextBooking);
+        itemWithBookingDto.setComments(commentRepository.findDtosByItemId(id, PageRequest.of(0, latestComments)));
         return itemWithBookingDto;
     }
 
@@ -120,56 +163,178 @@ public class ItemServiceImpl implements ItemService {
         }
         List<Long> itemsIds = items.stream().map(Item::getId).toList();
 
-        List<Booking> past = bookingRepository.findPastForItems(itemsIds, LocalDateTime.now());
-        List<Booking> future = bookingRepository.findFutureForItems(itemsIds, LocalDateTime.now());
-
-        Map<Long, List<Comment>> commentMap = commentRepository.findAllByItemIds(itemsIds,
-                        Sort.by(Sort.Direction.DESC, "created"))
+        Map<Long, List<ItemCommentRow>> commentMap = commentRepository.findLatestForItems(itemsIds, latestComments)
                 .stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+                .collect(Collectors.groupingBy(ItemCommentRow::getItemId));
 
-        Map<Long, Booking> lastByItem = new HashMap<>();
-        for (Booking booking : past) {
-            lastByItem.putIfAbsent(booking.getItem().getId(), booking);
-        }
-        Map<Long, Booking> nextByItem = new HashMap<>();
-        for (Booking booking : future) {
-            nextByItem.putIfAbsent(booking.getItem().getId(), booking);
+        Map<Long, BookingSmallDto> lastByItem = new HashMap<>();
+        Map<Long, BookingSmallDto> nextByItem = new HashMap<>();
+        for (ItemBookingRow row : bookingRepository.findLastAndNextForItems(itemsIds, LocalDateTime.now())) {
+            (row.getLastBooking() ? lastByItem : nextByItem).put(row.getItemId(), BookingMapper.toBookingSmallDto(row));
         }
         return items
                 .stream()
                 .map(item -> {
-                    BookingSmallDto lastBooking = new BookingSmallDto();
-                    BookingSmallDto nextBooking = new BookingSmallDto();
-                    if (lastByItem.get(item.getId()) != null) {
-                        lastBooking = BookingMapper.toBookingSmallDto(lastByItem.get(item.getId()));
-                    }
-                    if (nextByItem.get(item.getId()) != null) {
-                        nextBooking = BookingMapper.toBookingSmallDto(nextByItem.get(item.getId()));
-                    }
+                    BookingSmallDto lastBooking = lastByItem.getOrDefault(item.getId(), new BookingSmallDto());
+                    BookingSmallDto nextBooking = nextByItem.getOrDefault(item.getId(), new BookingSmallDto());
                     ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking);
-                    itemWithBookingDto.setComments(commentMap.getOrDefault(item.getId(), Collections.emptyList())
-                            .stream().map(CommentMapper::toCommentDto).toList());
+                    List<ItemCommentRow> comments = commentMap.getOrDefault(item.getId(), Collections.emptyList());
+                    itemWithBookingDto.setCommentCount(comments.isEmpty() ? 0 : comments.getFirst().getCommentCount());
+                    itemWithBookingDto.setComments(comments.stream()
+                            .limit(latestComments)
+                            .map(CommentMapper::toCommentDto)
+                            .toList());
                     return itemWithBookingDto;
                 }).toList();
     }
 
+    @Override
+    public CursorPage<CommentDto> getComments(long itemId, long userId, String cursor, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        TimeCursor after = TimeCursor.decode(cursor);
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Unable to get comments. Item not found.");
+            throw new NotFoundException("Item not found.");
+        }
+        // one comment past the page only tells whether there is a next one
+        List<CommentDto> comments = after.isFirst()
+                ? commentRepository.findDtosByItemId(itemId, PageRequest.of(0, size + 1))
+                : commentRepository.findDtosByItemIdBefore(itemId, after.getTime(), after.getId(),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentDto last = comments.getLast();
+            nextCursor = TimeCursor.after(last.getCreated(), last.getId()).encode();
+        }
+        return new CursorPage<>(comments, nextCursor);
+    }
 
     @Override
-    public List<ItemDto> searchItems(String text, long userId) {
+    public CursorPage<ItemDto> searchItems(String text, long userId, String cursor, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
         if (text == null || text.isBlank()) {
+            return CursorPage.empty();
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        return itemSearchCache.get(text, cursor, size, () -> switch (searchMode) {
+            case INDEX -> searchIndex(text, after, size);
+            case FULL_TEXT -> fullTextSupported ? searchFullText(text, after, size) : searchLike(text, after, size);
+            case LIKE -> searchLike(text, after, size);
+            case FUZZY -> searchFuzzy(text, after, size);
+        });
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, long userId, int size) {
+        if (size <= 0 || size > ItemNameTrie.MAX_SUGGESTIONS) {
+            throw new BadRequestException("Suggestion count must be between 1 and " + ItemNameTrie.MAX_SUGGESTIONS + ".");
+        }
+        if (prefix == null || prefix.isBlank()) {
             return List.of();
         }
-        return itemRepository.search(text).stream().map(ItemMapper::toItemDto).toList();
+        return itemNameTrie.suggest(prefix, size);
+    }
+
+    private CursorPage<ItemDto> searchIndex(String text, SearchCursor after, int size) {
+        return searchInMemory(after, size, (afterId, limit) -> itemSearchIndex.search(text, afterId, limit),
+                item -> ItemSearchIndex.matches(item.getName(), item.getDescription(), text));
+    }
+
+    private CursorPage<ItemDto> searchFuzzy(String text, SearchCursor after, int size) {
+        return searchInMemory(after, size, (afterId, limit) -> itemNameVocabulary.search(text, afterId, limit),
+                item -> ItemNameVocabulary.matches(item.getName(), text));
+    }
+
+    private CursorPage<ItemDto> searchInMemory(SearchCursor after, int size,
+                                               BiFunction<Long, Integer, List<Long>> searchIds,
+                                               Predicate<Item> matches) {
+        List<Item> items = new ArrayList<>();
+        long afterId = after.getId();
+        // one item past the page tells whether there is a next page
+        while (items.size() <= size) {
+            int limit = size + 1 - items.size();
+            List<Long> ids = searchIds.apply(afterId, limit);
+            if (ids.isEmpty()) {
+                break;
+            }
+            // in-memory structures also see writes of transactions that are not committed yet, so rows are checked
+            itemRepository.findAllById(ids)
+                    .stream()
+                    .filter(item -> item.isAvailable() && matches.test(item))
+                    .sorted(Comparator.comparing(Item::getId))
+                    .forEach(items::add);
+            afterId = ids.getLast();
+            if (ids.size() < limit) {
+                break;
+            }
+        }
+        return toItemPage(items, size);
+    }
+
+    private CursorPage<ItemDto> searchLike(String text, SearchCursor after, int size) {
+        return toItemPage(itemRepository.search(text, after.getId(), PageRequest.of(0, size + 1)), size);
+    }
+
+    private CursorPage<ItemDto> searchFullText(String text, SearchCursor after, int size) {
+        // one hit past the page tells whether there is a next page
+        List<ItemSearchHit> hits = itemRepository.fullTextSearch(text, after.getScore(), after.getId(), size + 1);
+        String nextCursor = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            ItemSearchHit last = hits.getLast();
+            nextCursor = SearchCursor.after(last.getScore(), last.getId()).encode();
+        }
+        return new CursorPage<>(hits.stream().map(ItemMapper::toItemDto).toList(), nextCursor);
+    }
+
+    /**
+     * Makes a page of the items read one past the page size, with a next cursor only if there are more of them.
+     */
+    private static CursorPage<ItemDto> toItemPage(List<Item> items, int size) {
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = SearchCursor.after(items.getLast().getId()).encode();
+        }
+        return new CursorPage<>(items.stream().map(ItemMapper::toItemDto).toList(), nextCursor);
+    }
+
+    @Override
+    public List<TimeSlotDto> getAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("The end of the period must be after its start.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Unable to get availability. Item not found.");
+            throw new NotFoundException("Item not found.");
+        }
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        LocalDateTime minStart = maxBookingDuration == null ? ANY_START : from.minus(maxBookingDuration);
+        for (TimeSlotDto busy : bookingRepository.findPeriodsWithin(itemId,
+                EnumSet.of(BookingStatus.APPROVED, BookingStatus.WAITING), minStart, from, to)) {
+            if (busy.getStart().isAfter(freeFrom)) {
+                free.add(new TimeSlotDto(freeFrom, busy.getStart()));
+            }
+            if (busy.getEnd().isAfter(freeFrom)) {
+                freeFrom = busy.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new TimeSlotDto(freeFrom, to));
+        }
+        return free;
     }
 
     @Override
     @Transactional
     public CommentDto createComment(CommentDto commentDto, long authorId, long itemId) {
-        User author = userRepository.findById(authorId).orElseThrow(() -> {
-            log.warn("Unable to create comment. User not found.");
-            return new NotFoundException("User not found.");
-        });
+        UserIdentity author = userIdentityCache.get(authorId, "Unable to create comment. User not found.");
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
             log.warn("Unable to create comment. Item not found.");
             return new NotFoundException("Item not found.");
@@ -179,7 +344,8 @@ public class ItemServiceImpl implements ItemService {
             log.warn("Unable to create comment. The author did not booking this item.");
             return new BadRequestException("The author did not booking this item.");
         });
-        Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, author, item));
-        return CommentMapper.toCommentDto(comment);
+        Comment comment = commentRepository.save(CommentMapper.toComment(commentDto,
+                userRepository.getReferenceById(authorId), item));
+        return CommentMapper.toCommentDto(comment, author.getName());
     }
 }
@@ -15,5 +15,6 @@ public class ItemWithBookingDto {
     private Boolean available;
     private BookingSmallDto lastBooking;
     private BookingSmallDto nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 }
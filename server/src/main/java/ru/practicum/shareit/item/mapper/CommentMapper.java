@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.ItemCommentRow;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -21,11 +22,19 @@ public class CommentMapper {
     }
 
     public static CommentDto toCommentDto(Comment comment) {
+        return toCommentDto(comment, comment.getAuthor().getName());
+    }
+
+    public static CommentDto toCommentDto(Comment comment, String authorName) {
         CommentDto commentDto = new CommentDto();
         commentDto.setId(comment.getId());
         commentDto.setText(comment.getText());
         commentDto.setCreated(comment.getCreated());
-        commentDto.setAuthorName(comment.getAuthor().getName());
+        commentDto.setAuthorName(authorName);
         return commentDto;
     }
+
+    public static CommentDto toCommentDto(ItemCommentRow row) {
+        return new CommentDto(row.getId(), row.getText(), row.getAuthorName(), row.getCreated());
+    }
 }
@@ -3,9 +3,11 @@ package ru.practicum.shareit.item.mapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingSmallDto;
+import ru.practicum.shareit.item.ItemDetailsRow;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchHit;
 import ru.practicum.shareit.user.model.User;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -20,6 +22,16 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDto toItemDto(ItemSearchHit hit) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(hit.getId());
+        itemDto.setName(hit.getName());
+        itemDto.setDescription(hit.getDescription());
+        itemDto.setAvailable(hit.getAvailable());
+        itemDto.setRequestId(hit.getRequestId());
+        return itemDto;
+    }
+
     public static Item toItem(ItemDto itemDto, User user) {
         Item item = new Item();
         item.setName(itemDto.getName());
@@ -40,4 +52,17 @@ public class ItemMapper {
         itemWithBookingDto.setNextBooking(nextBooking);
         return itemWithBookingDto;
     }
+
+    public static ItemWithBookingDto toItemWithBookingDto(ItemDetailsRow row, BookingSmallDto lastBooking,
+                                                          BookingSmallDto nextBooking) {
+        ItemWithBookingDto itemWithBookingDto = new ItemWithBookingDto();
+        itemWithBookingDto.setId(row.getId());
+        itemWithBookingDto.setName(row.getName());
+        itemWithBookingDto.setDescription(row.getDescription());
+        itemWithBookingDto.setAvailable(row.getAvailable());
+        itemWithBookingDto.setCommentCount(row.getCommentCount());
+        itemWithBookingDto.setLastBooking(lastBooking);
+        itemWithBookingDto.setNextBooking(nextBooking);
+        return itemWithBookingDto;
+    }
 }
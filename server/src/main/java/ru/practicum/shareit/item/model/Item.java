@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import ru.practicum.shareit.item.search.ItemIndexListener;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +12,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "items", schema = "public")
+@EntityListeners(ItemIndexListener.class)
 @Getter
 @Setter
 @ToString
@@ -38,6 +40,9 @@ public class Item {
     @ToString.Exclude
     private ItemRequest request;
 
+    @Version
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class IndexedItem {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final boolean available;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published synchronously for every stored item write, and for items loaded into the index at startup,
+ * with the searchable state before and after it.
+ * {@code previous} is null for a new item, {@code current} is null for a removed one.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+    private final IndexedItem previous;
+    private final IndexedItem current;
+}
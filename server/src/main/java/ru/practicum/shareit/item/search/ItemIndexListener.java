@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@link ItemSearchIndex} in step with every stored item write and publishes {@link ItemChangedEvent}.
+ * If the transaction is rolled back, the items it touched are put back into the index as they were.
+ */
+@RequiredArgsConstructor
+public class ItemIndexListener {
+
+    private final ItemSearchIndex itemSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        IndexedItem current = new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                item.isAvailable());
+        IndexedItem previous = itemSearchIndex.index(current);
+        rememberOriginal(item.getId(), previous);
+        eventPublisher.publishEvent(new ItemChangedEvent(previous, current));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        IndexedItem previous = itemSearchIndex.remove(item.getId());
+        rememberOriginal(item.getId(), previous);
+        eventPublisher.publishEvent(new ItemChangedEvent(previous, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rememberOriginal(Long itemId, IndexedItem previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Map<Long, IndexedItem> originals = (Map<Long, IndexedItem>) TransactionSynchronizationManager.getResource(this);
+        if (originals == null) {
+            Map<Long, IndexedItem> touched = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, touched);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemIndexListener.this);
+                    if (status != STATUS_COMMITTED) {
+                        touched.forEach(ItemIndexListener.this::restore);
+                    }
+                }
+            });
+            originals = touched;
+        }
+        if (!originals.containsKey(itemId)) {
+            originals.put(itemId, previous);
+        }
+    }
+
+    private void restore(Long itemId, IndexedItem original) {
+        IndexedItem discarded = original == null ? itemSearchIndex.remove(itemId) : itemSearchIndex.index(original);
+        eventPublisher.publishEvent(new ItemChangedEvent(discarded, original));
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed trie over the lower-cased names of available items, kept in step with {@link ItemChangedEvent}.
+ * Every node holds its best {@link #MAX_SUGGESTIONS} names (most items first, then alphabetically),
+ * so a lookup only walks the prefix and never the subtree below it.
+ */
+@Component
+public class ItemNameTrie {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<Node> RANKING = Comparator.comparingInt((Node node) -> node.count).reversed()
+            .thenComparing(node -> node.name);
+
+    private final Node root = new Node("");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        String previous = visibleName(event.getPrevious());
+        String current = visibleName(event.getCurrent());
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                update(previous, -1);
+            }
+            if (current != null) {
+                update(current, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} names of available items starting with the prefix, ignoring case.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int offset = 0;
+            while (offset < key.length()) {
+                node = node.children.get(key.charAt(offset));
+                if (node == null) {
+                    return List.of();
+                }
+                int common = commonPrefixLength(node.label, key, offset);
+                if (common < node.label.length() && offset + common < key.length()) {
+                    return List.of();
+                }
+                offset += common;
+            }
+            return node.top.stream().limit(limit).map(top -> top.name).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(String name, int delta) {
+        String key = name.toLowerCase(Locale.ROOT);
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.children.get(key.charAt(offset));
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = new Node(key.substring(offset));
+                node.children.put(key.charAt(offset), child);
+            }
+            int common = commonPrefixLength(child.label, key, offset);
+            if (common < child.label.length()) {
+                if (delta < 0) {
+                    return;
+                }
+                child = split(node, child, common);
+            }
+            node = child;
+            path.add(node);
+            offset += common;
+        }
+        node.count += delta;
+        if (node.count <= 0) {
+            node.count = 0;
+            node.name = null;
+        } else if (delta > 0) {
+            node.name = name;
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            compact(path.get(i - 1), path.get(i));
+        }
+        root.rankTop();
+    }
+
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        middle.top = child.top;
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private static void compact(Node parent, Node node) {
+        if (node.name == null && node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            return;
+        }
+        if (node.name == null && node.children.size() == 1) {
+            Node child = node.children.firstEntry().getValue();
+            node.label += child.label;
+            node.children = child.children;
+            node.name = child.name;
+            node.count = child.count;
+        }
+        node.rankTop();
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < key.length()
+                && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static String visibleName(IndexedItem item) {
+        return item != null && item.isAvailable() && item.getName() != null && !item.getName().isBlank()
+                ? item.getName() : null;
+    }
+
+    private static class Node {
+        private String label;
+        private TreeMap<Character, Node> children = new TreeMap<>();
+        // the name is set only on nodes that end a name of at least one available item
+        private String name;
+        private int count;
+        private List<Node> top = List.of();
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void rankTop() {
+            List<Node> candidates = new ArrayList<>();
+            if (name != null) {
+                candidates.add(this);
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(RANKING);
+            top = candidates.size() > MAX_SUGGESTIONS ? List.copyOf(candidates.subList(0, MAX_SUGGESTIONS)) : candidates;
+        }
+    }
+}
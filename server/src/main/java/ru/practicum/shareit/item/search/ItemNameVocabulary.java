@@ -0,0 +1,230 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Words of available item names in a BK-tree, for typo-tolerant search.
+ * A query word matches name words within {@link #maxDistance} edits; the tree is searched only within that
+ * radius, so a lookup compares the query with a small part of the vocabulary instead of every item.
+ * A BK-tree can not drop nodes, so words that no item uses any more stay in it until they are as many as the
+ * words in use; the tree is then rebuilt from the words in use, which keeps it at most twice their number and
+ * costs every removal a constant share of a rebuild.
+ */
+@Component
+public class ItemNameVocabulary {
+
+    // a tree of a few words is cheaper to search than to rebuild
+    private static final int MIN_DEAD_WORDS_TO_PRUNE = 32;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BkNode root;
+    private int deadWords;
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        Set<String> previous = visibleWords(event.getPrevious());
+        Set<String> current = visibleWords(event.getCurrent());
+        if (previous.equals(current)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (String word : previous) {
+                Set<Long> ids = postings.get(word);
+                if (ids != null) {
+                    ids.remove(event.getPrevious().getId());
+                    if (ids.isEmpty()) {
+                        // the word stays in the tree, found by searches but with nothing to return
+                        postings.remove(word);
+                        deadWords++;
+                    }
+                }
+            }
+            for (String word : current) {
+                postings.computeIfAbsent(word, key -> {
+                    if (!addToTree(key)) {
+                        deadWords--;
+                    }
+                    return new HashSet<>();
+                }).add(event.getCurrent().getId());
+            }
+            if (deadWords >= Math.max(MIN_DEAD_WORDS_TO_PRUNE, postings.size())) {
+                rebuildTree();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} ids greater than {@code afterId}, in id order, of items that have a name word
+     * close to every word of the text.
+     */
+    public List<Long> search(String text, long afterId, int limit) {
+        List<String> queryWords = words(text);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String queryWord : queryWords) {
+                Set<Long> ids = new HashSet<>();
+                for (String word : findClose(queryWord)) {
+                    ids.addAll(postings.getOrDefault(word, Set.of()));
+                }
+                if (result == null) {
+                    result = ids;
+                } else {
+                    result.retainAll(ids);
+                }
+                if (result.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return result.stream().filter(id -> id > afterId).sorted().limit(limit).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean matches(String name, String text) {
+        List<String> nameWords = words(name);
+        return words(text).stream().allMatch(queryWord -> nameWords.stream()
+                .anyMatch(word -> editDistance(queryWord, word) <= maxDistance(queryWord)));
+    }
+
+    /**
+     * Short words are matched exactly, otherwise the allowed number of typos grows with the word length.
+     */
+    static int maxDistance(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    static int editDistance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    static List<String> words(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private List<String> findClose(String queryWord) {
+        List<String> found = new ArrayList<>();
+        if (root == null) {
+            return found;
+        }
+        int radius = maxDistance(queryWord);
+        Deque<BkNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            BkNode node = pending.pop();
+            int distance = editDistance(queryWord, node.word);
+            if (distance <= radius) {
+                found.add(node.word);
+            }
+            // by the triangle inequality only children at distance - radius .. distance + radius can match
+            for (int d = Math.max(1, distance - radius); d <= distance + radius; d++) {
+                BkNode child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of words in the tree, those no item uses any more included.
+     */
+    int treeSize() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            Deque<BkNode> pending = new ArrayDeque<>();
+            if (root != null) {
+                pending.push(root);
+            }
+            while (!pending.isEmpty()) {
+                BkNode node = pending.pop();
+                size++;
+                node.children.values().forEach(pending::push);
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the word and tells whether it is new to the tree, rather than left there by earlier items.
+     */
+    private boolean addToTree(String word) {
+        if (root == null) {
+            root = new BkNode(word);
+            return true;
+        }
+        BkNode node = root;
+        while (true) {
+            int distance = editDistance(word, node.word);
+            if (distance == 0) {
+                return false;
+            }
+            BkNode child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new BkNode(word));
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    private void rebuildTree() {
+        root = null;
+        deadWords = 0;
+        postings.keySet().forEach(this::addToTree);
+    }
+
+    private static Set<String> visibleWords(IndexedItem item) {
+        return item != null && item.isAvailable() ? new HashSet<>(words(item.getName())) : Set.of();
+    }
+
+    private static class BkNode {
+        private final String word;
+        private final Map<Integer, BkNode> children = new HashMap<>();
+
+        BkNode(String word) {
+            this.word = word;
+        }
+    }
+}
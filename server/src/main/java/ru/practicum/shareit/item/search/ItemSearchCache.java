@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search result pages keyed by the lower-cased search text.
+ * An item write drops only the pages of texts that the item matched before or after the write. Cached texts are
+ * indexed by their first trigram, as a text can only be found in an item that has that trigram, so a write looks
+ * up the texts it may affect instead of checking every cached page.
+ * Pages are loaded outside of the cache, and a page is not kept if a write that affects it was in flight while it
+ * was loaded, so that a page read before a commit can not outlive the invalidation made after it.
+ */
+@Component
+public class ItemSearchCache {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Cache<Key, CursorPage<ItemDto>> cache;
+    private final ItemSearchMode searchMode;
+    private final Map<String, Set<Key>> keysByText = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> textsByGram = new ConcurrentHashMap<>();
+    private final Set<Write> pendingWrites = ConcurrentHashMap.newKeySet();
+    // raised by every invalidation, so that a load that overlaps one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl,
+                           @Value("${shareit.search.mode:index}") ItemSearchMode searchMode,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((Key key, CursorPage<ItemDto> page, RemovalCause cause) -> forget(key))
+                .recordStats()
+                .build();
+        this.searchMode = searchMode;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public CursorPage<ItemDto> get(String text, String cursor, int size, Supplier<CursorPage<ItemDto>> loader) {
+        Key key = new Key(text.toLowerCase(Locale.ROOT), cursor, size);
+        CursorPage<ItemDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        CursorPage<ItemDto> page = loader.get();
+        if (pendingWrites.stream().anyMatch(write -> affects(write, key.getText()))) {
+            return page;
+        }
+        // the key is findable before the page is put, so an invalidation from now on drops it
+        remember(key);
+        cache.put(key, page);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getPrevious(), event.getCurrent());
+    }
+
+    /**
+     * Drops pages affected by an item write, right away and once more when the surrounding transaction
+     * completes, so that pages cached from uncommitted or rolled back state do not survive it.
+     */
+    public void invalidate(IndexedItem previous, IndexedItem current) {
+        if (!affectsResults(previous, current)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateMatching(previous, current);
+            return;
+        }
+        Write write = new Write(previous, current);
+        pendingWrites.add(write);
+        invalidateMatching(previous, current);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidateMatching(previous, current);
+                pendingWrites.remove(write);
+            }
+        });
+    }
+
+    private void invalidateMatching(IndexedItem previous, IndexedItem current) {
+        generation.incrementAndGet();
+        if (searchMode == ItemSearchMode.FULL_TEXT || searchMode == ItemSearchMode.FUZZY) {
+            // stemmed and fuzzy matches are not checked here, so every page may be affected
+            cache.invalidateAll();
+            keysByText.clear();
+            textsByGram.clear();
+            return;
+        }
+        Set<String> texts = new HashSet<>();
+        collectTexts(previous, texts);
+        collectTexts(current, texts);
+        for (String text : texts) {
+            if (isFound(previous, text) || isFound(current, text)) {
+                textsByGram.computeIfPresent(gramOf(text), (gram, gramTexts) -> {
+                    gramTexts.remove(text);
+                    return gramTexts.isEmpty() ? null : gramTexts;
+                });
+                Set<Key> keys = keysByText.remove(text);
+                if (keys != null) {
+                    cache.invalidateAll(keys);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the cached texts that may be found in the item: those starting with one of its trigrams and
+     * those too short to have one.
+     */
+    private void collectTexts(IndexedItem item, Set<String> texts) {
+        if (!isVisible(item)) {
+            return;
+        }
+        for (String field : new String[]{item.getName(), item.getDescription()}) {
+            String value = field == null ? "" : field.toLowerCase(Locale.ROOT);
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                texts.addAll(textsByGram.getOrDefault(value.substring(i, i + GRAM_LENGTH), Set.of()));
+            }
+        }
+        for (int length = 1; length < GRAM_LENGTH; length++) {
+            texts.addAll(textsByGram.getOrDefault(shortGram(length), Set.of()));
+        }
+    }
+
+    private void remember(Key key) {
+        keysByText.computeIfAbsent(key.getText(), text -> ConcurrentHashMap.newKeySet()).add(key);
+        // added every time, as a concurrent invalidation may have just dropped the text
+        textsByGram.computeIfAbsent(gramOf(key.getText()), gram -> ConcurrentHashMap.newKeySet()).add(key.getText());
+    }
+
+    private void forget(Key key) {
+        keysByText.computeIfPresent(key.getText(), (text, keys) -> {
+            keys.remove(key);
+            if (!keys.isEmpty()) {
+                return keys;
+            }
+            textsByGram.computeIfPresent(gramOf(text), (gram, gramTexts) -> {
+                gramTexts.remove(text);
+                return gramTexts.isEmpty() ? null : gramTexts;
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Returns the trigram a text is indexed by; texts shorter than a trigram share one entry per length.
+     */
+    private static String gramOf(String text) {
+        return text.length() >= GRAM_LENGTH ? text.substring(0, GRAM_LENGTH) : shortGram(text.length());
+    }
+
+    private static String shortGram(int length) {
+        return "\u0000" + length;
+    }
+
+    private boolean affects(Write write, String text) {
+        if (searchMode == ItemSearchMode.FULL_TEXT || searchMode == ItemSearchMode.FUZZY) {
+            return true;
+        }
+        return isFound(write.previous, text) || isFound(write.current, text);
+    }
+
+    private static boolean affectsResults(IndexedItem previous, IndexedItem current) {
+        if (!isVisible(previous) && !isVisible(current)) {
+            return false;
+        }
+        return previous == null || current == null
+                || previous.isAvailable() != current.isAvailable()
+                || !Objects.equals(previous.getName(), current.getName())
+                || !Objects.equals(previous.getDescription(), current.getDescription());
+    }
+
+    private static boolean isVisible(IndexedItem item) {
+        return item != null && item.isAvailable();
+    }
+
+    private static boolean isFound(IndexedItem item, String text) {
+        return isVisible(item) && ItemSearchIndex.matches(item.getName(), item.getDescription(), text);
+    }
+
+    @Data
+    private static class Key {
+        private final String text;
+        private final String cursor;
+        private final int size;
+    }
+
+    /**
+     * An item write whose transaction has not completed yet.
+     */
+    @RequiredArgsConstructor
+    private static class Write {
+        private final IndexedItem previous;
+        private final IndexedItem current;
+    }
+}
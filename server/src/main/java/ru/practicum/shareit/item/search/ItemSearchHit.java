@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+public interface ItemSearchHit {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Float getScore();
+}
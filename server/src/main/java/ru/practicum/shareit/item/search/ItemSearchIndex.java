@@ -0,0 +1,261 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over item name and description.
+ * Every field is split into trigrams (padded with a boundary marker so that short values are indexed too),
+ * which gives the same substring semantics as {@code upper(name) like upper('%text%')} without scanning the table.
+ * Postings are kept in id order, so a page is read by seeking every posting list to the cursor and walking them
+ * together until the page is full, instead of collecting all matches first.
+ */
+@Component
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final char BOUNDARY = '\u0001';
+
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the item and returns the version it replaced, if any.
+     */
+    public IndexedItem index(IndexedItem item) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = removeDocument(item.getId());
+            addDocument(item);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the item unless a write has already indexed it and tells whether it was added.
+     */
+    public boolean indexIfAbsent(IndexedItem item) {
+        lock.writeLock().lock();
+        try {
+            if (documents.containsKey(item.getId())) {
+                return false;
+            }
+            addDocument(item);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public IndexedItem remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            return removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of available items whose name or description contains the text, ignoring case, in id order.
+     */
+    public List<Long> search(String text) {
+        return search(text, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns at most {@code limit} matching ids greater than {@code afterId}, in id order.
+     */
+    public List<Long> search(String text, long afterId, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Iterator<Long> candidates = query.length() >= GRAM_LENGTH
+                    ? intersectPostings(query, afterId)
+                    : unionPostingsContaining(query, afterId);
+            List<Long> result = new ArrayList<>();
+            while (result.size() < limit && candidates.hasNext()) {
+                Long id = candidates.next();
+                IndexedItem item = documents.get(id);
+                if (item != null && item.isAvailable() && matches(item.getName(), item.getDescription(), query)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean matches(String name, String description, String text) {
+        String query = normalize(text);
+        return normalize(name).contains(query) || normalize(description).contains(query);
+    }
+
+    /**
+     * Walks the ids after {@code afterId} of the shortest posting list and keeps those found in all the others.
+     */
+    private Iterator<Long> intersectPostings(String query, long afterId) {
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : new HashSet<>(grams(query, false))) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyIterator();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Iterator<Long> smallest = lists.getFirst().tailSet(afterId, false).iterator();
+        List<NavigableSet<Long>> others = lists.subList(1, lists.size());
+        return new Iterator<>() {
+            private Long next = advance();
+
+            private Long advance() {
+                while (smallest.hasNext()) {
+                    Long id = smallest.next();
+                    if (others.stream().allMatch(ids -> ids.contains(id))) {
+                        return id;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Long next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Long id = next;
+                next = advance();
+                return id;
+            }
+        };
+    }
+
+    /**
+     * Merges the ids after {@code afterId} of every posting list whose gram contains the query, in id order
+     * and without repeats.
+     */
+    private Iterator<Long> unionPostingsContaining(String query, long afterId) {
+        PriorityQueue<PostingCursor> heads = new PriorityQueue<>(Comparator.comparingLong(PostingCursor::current));
+        for (Map.Entry<String, NavigableSet<Long>> entry : postings.entrySet()) {
+            if (entry.getKey().contains(query)) {
+                PostingCursor cursor = new PostingCursor(entry.getValue().tailSet(afterId, false).iterator());
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Long next() {
+                if (heads.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                long id = heads.peek().current();
+                while (!heads.isEmpty() && heads.peek().current() == id) {
+                    PostingCursor cursor = heads.poll();
+                    if (cursor.advance()) {
+                        heads.add(cursor);
+                    }
+                }
+                return id;
+            }
+        };
+    }
+
+    private void addDocument(IndexedItem item) {
+        documents.put(item.getId(), item);
+        for (String gram : documentGrams(item)) {
+            postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(item.getId());
+        }
+    }
+
+    private IndexedItem removeDocument(Long itemId) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous == null) {
+            return null;
+        }
+        for (String gram : documentGrams(previous)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        return previous;
+    }
+
+    private static Set<String> documentGrams(IndexedItem item) {
+        Set<String> grams = new HashSet<>(grams(normalize(item.getName()), true));
+        grams.addAll(grams(normalize(item.getDescription()), true));
+        return grams;
+    }
+
+    private static List<String> grams(String value, boolean padded) {
+        String source = padded ? BOUNDARY + value + BOUNDARY : value;
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= source.length(); i++) {
+            grams.add(source.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Position in one posting list while several of them are merged.
+     */
+    private static final class PostingCursor {
+        private final Iterator<Long> ids;
+        private long current;
+
+        PostingCursor(Iterator<Long> ids) {
+            this.ids = ids;
+        }
+
+        boolean advance() {
+            if (!ids.hasNext()) {
+                return false;
+            }
+            current = ids.next();
+            return true;
+        }
+
+        long current() {
+            return current;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndexInitializer {
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.search.index.rebuild-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0;
+        List<IndexedItem> batch;
+        do {
+            batch = itemRepository.findIndexBatch(afterId, PageRequest.of(0, batchSize));
+            for (IndexedItem item : batch) {
+                if (itemSearchIndex.indexIfAbsent(item)) {
+                    eventPublisher.publishEvent(new ItemChangedEvent(null, item));
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().getId();
+            }
+        } while (batch.size() == batchSize);
+        log.info("Item search index rebuilt, {} items indexed.", itemSearchIndex.size());
+    }
+}
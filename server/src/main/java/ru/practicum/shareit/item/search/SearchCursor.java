@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in search results: the id of the last returned item and, for ranked results, its score.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class SearchCursor {
+    public static final SearchCursor FIRST = new SearchCursor(0, Float.MAX_VALUE);
+
+    private final long id;
+    private final float score;
+
+    public static SearchCursor after(long id) {
+        return new SearchCursor(id, Float.MAX_VALUE);
+    }
+
+    public static SearchCursor after(float score, long id) {
+        return new SearchCursor(id, score);
+    }
+
+    public String encode() {
+        String value = score == Float.MAX_VALUE ? Long.toString(id) : score + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                return after(Long.parseLong(value));
+            }
+            return after(Float.parseFloat(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 
 import java.util.List;
 
@@ -26,8 +28,10 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getAll(userId);
+    public ResponseEntity<List<ItemRequestDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        return itemRequestService.getAll(userId, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/{requestId}")
@@ -35,4 +39,10 @@ public class ItemRequestController {
                                   @PathVariable long requestId) {
         return itemRequestService.getById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public List<ItemSuggestionDto> getSuggestions(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable long requestId) {
+        return itemRequestService.getSuggestions(userId, requestId);
+    }
 }
@@ -1,12 +1,30 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorId(Long requestorId, Sort sort);
 
-    List<ItemRequest> findAllByRequestorIdNot(Long requestorId, Sort sort);
+    /**
+     * Returns the first page of requests of other users, newest first, read along the
+     * {@code requests_created_idx} index.
+     */
+    @Query("select r from ItemRequest r where r.requestor.id <> :userId order by r.created desc, r.id desc")
+    List<ItemRequest> findPageOfOthers(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Same as {@link #findPageOfOthers} for the requests after the given one.
+     */
+    @Query(" select r from ItemRequest r where r.requestor.id <> :userId " +
+            "and (r.created, r.id) < (:created, :id) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findPageOfOthersBefore(@Param("userId") Long userId, @Param("created") LocalDateTime created,
+                                            @Param("id") long id, Pageable pageable);
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 
 import java.util.List;
 
@@ -9,7 +11,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getOwn(Long userId);
 
-    List<ItemRequestDto> getAll(Long userId);
+    CursorPage<ItemRequestDto> getAll(Long userId, String cursor, int size);
 
     ItemRequestDto getById(Long userId, Long requestId);
+
+    List<ItemSuggestionDto> getSuggestions(Long userId, Long requestId);
 }
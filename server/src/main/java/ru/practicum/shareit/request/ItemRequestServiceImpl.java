@@ -2,17 +2,30 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemAnswerRow;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.matching.RequestSuggestionRepository;
+import ru.practicum.shareit.user.UserIdentityCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -21,35 +34,56 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final ItemRepository itemRepository;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.request.matching.max-suggestions:20}")
+    private int maxSuggestions;
 
     @Override
     @Transactional
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
         User requestor = getUserIfExist(userId, "Unable to create item request. User not found.");
-        ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, requestor);
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest), List.of());
+        ItemRequest itemRequest = itemRequestRepository.save(
+                ItemRequestMapper.toItemRequest(itemRequestDto, requestor));
+        // matched against the items once committed, on the matcher's own threads
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getCreated()));
+        return ItemRequestMapper.toItemRequestDto(itemRequest, List.of());
     }
 
     @Override
     public List<ItemRequestDto> getOwn(Long userId) {
         getUserIfExist(userId, "Unable to get item requests. User not found.");
         Sort newestFirst = Sort.by(Sort.Direction.DESC, "created");
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorId(userId, newestFirst);
-        return itemRequests.stream().map(itemRequest ->
-                ItemRequestMapper.toItemRequestDto(itemRequest, itemRepository.findAllByRequestId(userId))).toList();
+        return toItemRequestDtos(itemRequestRepository.findAllByRequestorId(userId, newestFirst));
     }
 
     @Override
-    public List<ItemRequestDto> getAll(Long userId) {
+    public CursorPage<ItemRequestDto> getAll(Long userId, String cursor, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        TimeCursor after = TimeCursor.decode(cursor);
         getUserIfExist(userId, "Unable to get all item requests. User not found.");
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "created");
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNot(userId, newestFirst);
-        return itemRequests.stream().map(itemRequest ->
-                ItemRequestMapper.toItemRequestDto(itemRequest,
-                        itemRepository.findAllByRequestId(itemRequest.getId()))).toList();
+        // one request past the page only tells whether there is a next one
+        List<ItemRequest> itemRequests = after.isFirst()
+                ? itemRequestRepository.findPageOfOthers(userId, PageRequest.of(0, size + 1))
+                : itemRequestRepository.findPageOfOthersBefore(userId, after.getTime(), after.getId(),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (itemRequests.size() > size) {
+            itemRequests = itemRequests.subList(0, size);
+            ItemRequest last = itemRequests.getLast();
+            nextCursor = TimeCursor.after(last.getCreated(), last.getId()).encode();
+        }
+        return new CursorPage<>(toItemRequestDtos(itemRequests), nextCursor);
     }
 
     @Override
@@ -59,13 +93,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             log.warn("Unable to get item requests by Id. Item request not found.");
             return new NotFoundException("Item request not found.");
         });
-        return ItemRequestMapper.toItemRequestDto(itemRequest, itemRepository.findAllByRequestId(requestId));
+        return ItemRequestMapper.toItemRequestDto(itemRequest,
+                itemRepository.findAnswersByRequestIds(List.of(requestId)));
     }
 
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(Long userId, Long requestId) {
+        getUserIfExist(userId, "Unable to get item request suggestions. User not found.");
+        if (!itemRequestRepository.existsById(requestId)) {
+            log.warn("Unable to get item request suggestions. Item request not found.");
+            throw new NotFoundException("Item request not found.");
+        }
+        return requestSuggestionRepository.findByRequestId(requestId, maxSuggestions);
+    }
+
+    /**
+     * Loads the answers of all the requests with one query.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerRow>> answers = itemRepository.findAnswersByRequestIds(itemRequests.stream()
+                        .map(ItemRequest::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerRow::getRequestId));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Checks the user through the user cache and returns an unloaded reference to it.
+     */
     private User getUserIfExist(Long userId, String warnMessage) {
-        return userRepository.findById(userId).orElseThrow(() -> {
-            log.warn(warnMessage);
-            return new NotFoundException("User not found.");
-        });
+        userIdentityCache.get(userId, warnMessage);
+        return userRepository.getReferenceById(userId);
     }
 }
@@ -2,8 +2,8 @@ package ru.practicum.shareit.request.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.ItemAnswerRow;
 import ru.practicum.shareit.item.dto.ItemShortDto;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.model.User;
@@ -13,13 +13,13 @@ import java.util.List;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ItemRequestMapper {
-    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<Item> items) {
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemAnswerRow> items) {
         ItemRequestDto itemRequestDto = new ItemRequestDto();
         itemRequestDto.setId(itemRequest.getId());
         itemRequestDto.setDescription(itemRequest.getDescription());
         itemRequestDto.setCreated(itemRequest.getCreated());
         itemRequestDto.setItems(items.stream()
-                .map(item -> new ItemShortDto(item.getId(), item.getName(), item.getOwner().getId()))
+                .map(item -> new ItemShortDto(item.getId(), item.getName(), item.getOwnerId()))
                 .toList());
         return itemRequestDto;
     }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the transaction that stores a new item request; matched against the items once it commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final Long requestId;
+    private final String description;
+    private final LocalDateTime created;
+}
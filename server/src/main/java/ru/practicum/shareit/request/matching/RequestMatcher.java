@@ -0,0 +1,281 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggests existing items for new item requests and new items for open requests.
+ * Word stems of available items and of requests created within {@code open-period} are kept in two in-memory
+ * indexes: both are changed once the transaction of an item or a request commits, so that a rolled back write
+ * never shows up in the suggestions.
+ * A committed request or item is matched against the other index on a bounded executor, off the request path;
+ * when the queue is full the match is skipped, suggestions being a hint rather than a guarantee.
+ */
+@Slf4j
+@Component
+public class RequestMatcher {
+
+    // words of requests that say nothing about the thing asked for
+    private static final Set<String> STOP_WORDS = Set.of("нужна", "нужен", "нужно", "нужны", "ищу", "ищем",
+            "возьму", "арендую", "аренду", "напрокат", "для", "или", "кто", "есть", "очень", "пожалуйста",
+            "need", "needed", "looking", "for", "the", "and", "with", "rent", "borrow", "please");
+
+    private final RequestSuggestionRepository suggestionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final double minScore;
+    private final int maxSuggestions;
+    private final Duration openPeriod;
+
+    private final TokenIndex items = new TokenIndex();
+    private final TokenIndex requests = new TokenIndex();
+    private final Map<Long, LocalDateTime> requestCreated = new ConcurrentHashMap<>();
+
+    public RequestMatcher(RequestSuggestionRepository suggestionRepository,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${shareit.request.matching.threads:2}") int threads,
+                          @Value("${shareit.request.matching.queue-capacity:1000}") int queueCapacity,
+                          @Value("${shareit.request.matching.min-score:0.5}") double minScore,
+                          @Value("${shareit.request.matching.max-suggestions:20}") int maxSuggestions,
+                          @Value("${shareit.request.matching.open-period:30d}") Duration openPeriod) {
+        this.suggestionRepository = suggestionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "request-matcher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.minScore = minScore;
+        this.maxSuggestions = maxSuggestions;
+        this.openPeriod = openPeriod;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenRequests() {
+        jdbcTemplate.query("SELECT request_id, description, created_date FROM requests WHERE created_date >= ?",
+                rs -> {
+                    addRequest(rs.getLong("request_id"), rs.getString("description"),
+                            rs.getObject("created_date", LocalDateTime.class));
+                }, LocalDateTime.now().minus(openPeriod));
+        log.info("Request matcher loaded {} open requests.", requestCreated.size());
+    }
+
+    /**
+     * Applies a committed item write to the item index; items loaded at startup come outside of a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        IndexedItem current = event.getCurrent();
+        if (current != null && current.isAvailable()) {
+            items.put(current.getId(), stems(current));
+        } else if (event.getPrevious() != null) {
+            items.remove(event.getPrevious().getId());
+        }
+    }
+
+    /**
+     * Matches an item that has become available or changed its words against the open requests.
+     */
+    @TransactionalEventListener
+    public void onItemCommitted(ItemChangedEvent event) {
+        IndexedItem current = event.getCurrent();
+        if (current == null || !current.isAvailable()) {
+            return;
+        }
+        Set<String> stems = stems(current);
+        IndexedItem previous = event.getPrevious();
+        if (stems.isEmpty() || (previous != null && previous.isAvailable() && stems(previous).equals(stems))) {
+            return;
+        }
+        submit(() -> matchItem(current.getId(), stems));
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        Set<String> stems = addRequest(event.getRequestId(), event.getDescription(), event.getCreated());
+        if (!stems.isEmpty()) {
+            submit(() -> matchRequest(event.getRequestId(), stems));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stores the best scored available items for the request.
+     */
+    void matchRequest(long requestId, Set<String> requestStems) {
+        List<RequestSuggestion> suggestions = items.countShared(requestStems).entrySet().stream()
+                .map(shared -> new RequestSuggestion(requestId, shared.getKey(),
+                        (double) shared.getValue() / requestStems.size()))
+                .filter(suggestion -> suggestion.getScore() >= minScore)
+                .sorted(Comparator.comparingDouble(RequestSuggestion::getScore).reversed()
+                        .thenComparing(RequestSuggestion::getItemId))
+                .limit(maxSuggestions)
+                .toList();
+        suggestionRepository.saveAll(suggestions);
+    }
+
+    /**
+     * Stores the item as a suggestion for every open request it scores enough for.
+     */
+    void matchItem(long itemId, Set<String> itemStems) {
+        LocalDateTime openSince = LocalDateTime.now().minus(openPeriod);
+        List<RequestSuggestion> suggestions = new ArrayList<>();
+        for (Map.Entry<Long, Integer> shared : requests.countShared(itemStems).entrySet()) {
+            Long requestId = shared.getKey();
+            LocalDateTime created = requestCreated.get(requestId);
+            if (created == null || created.isBefore(openSince)) {
+                requests.remove(requestId);
+                requestCreated.remove(requestId);
+                continue;
+            }
+            double score = (double) shared.getValue() / requests.size(requestId);
+            if (score >= minScore) {
+                suggestions.add(new RequestSuggestion(requestId, itemId, score));
+            }
+        }
+        suggestionRepository.saveAll(suggestions);
+    }
+
+    private Set<String> addRequest(long requestId, String description, LocalDateTime created) {
+        Set<String> stems = stems(description);
+        if (!stems.isEmpty()) {
+            requestCreated.put(requestId, created);
+            requests.put(requestId, stems);
+        }
+        return stems;
+    }
+
+    private void submit(Runnable match) {
+        try {
+            executor.execute(() -> {
+                try {
+                    match.run();
+                } catch (RuntimeException e) {
+                    log.error("Unable to match item requests.", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Request matcher queue is full, a match is skipped.");
+        }
+    }
+
+    private static Set<String> stems(IndexedItem item) {
+        Set<String> stems = new HashSet<>(stems(item.getName()));
+        stems.addAll(stems(item.getDescription()));
+        return stems;
+    }
+
+    /**
+     * Lower-cased words of the text cut to a common prefix, so that most forms of a word share one stem:
+     * "палатка" and "палатку" both become "палатк".
+     */
+    static Set<String> stems(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        Set<String> stems = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() < 3 || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            stems.add(word.length() <= 4 ? word : word.substring(0, Math.min(word.length() - 1, 6)));
+        }
+        return stems;
+    }
+
+    /**
+     * Stems of documents and the documents of every stem.
+     */
+    private static class TokenIndex {
+        private final Map<Long, Set<String>> documents = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void put(long id, Set<String> stems) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+                documents.put(id, stems);
+                for (String stem : stems) {
+                    postings.computeIfAbsent(stem, key -> new HashSet<>()).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size(long id) {
+            lock.readLock().lock();
+            try {
+                return documents.getOrDefault(id, Set.of()).size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Returns how many of the stems every document that has any of them shares.
+         */
+        Map<Long, Integer> countShared(Set<String> stems) {
+            Map<Long, Integer> shared = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                for (String stem : stems) {
+                    for (Long id : postings.getOrDefault(stem, Set.of())) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return shared;
+        }
+
+        private void removeDocument(long id) {
+            Set<String> previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String stem : previous) {
+                Set<Long> ids = postings.get(stem);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(stem);
+                    }
+                }
+            }
+        }
+    }
+}
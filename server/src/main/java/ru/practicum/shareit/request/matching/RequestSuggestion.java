@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * An item suggested for a request, scored by the share of the request words found in the item.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RequestSuggestion {
+    private final Long requestId;
+    private final Long itemId;
+    private final double score;
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Items suggested for item requests by {@link RequestMatcher}, in {@code request_suggestions}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RequestSuggestionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores the suggestions that are still valid: an item is not suggested to its own owner, nor for a request
+     * it already answers, and a suggestion made before is kept as it was.
+     */
+    public void saveAll(Collection<RequestSuggestion> suggestions) {
+        if (suggestions.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] rows = suggestions.stream()
+                .map(suggestion -> new MapSqlParameterSource("requestId", suggestion.getRequestId())
+                        .addValue("itemId", suggestion.getItemId())
+                        .addValue("score", suggestion.getScore())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO request_suggestions (request_id, item_id, score, created_date) " +
+                "SELECT r.request_id, i.item_id, :score, :now FROM requests r JOIN items i ON i.item_id = :itemId " +
+                "WHERE r.request_id = :requestId AND i.owner_id <> r.requestor_id " +
+                "AND (i.request_id IS NULL OR i.request_id <> r.request_id) " +
+                "ON CONFLICT DO NOTHING", rows);
+    }
+
+    /**
+     * Returns the best suggestions of the request among the items that are available now.
+     */
+    public List<ItemSuggestionDto> findByRequestId(long requestId, int limit) {
+        return jdbcTemplate.query("SELECT i.item_id, i.name, i.description, i.owner_id, s.score " +
+                        "FROM request_suggestions s JOIN items i ON i.item_id = s.item_id " +
+                        "WHERE s.request_id = :requestId AND i.is_available = TRUE " +
+                        "ORDER BY s.score DESC, i.item_id LIMIT :limit",
+                new MapSqlParameterSource("requestId", requestId).addValue("limit", limit),
+                (rs, rowNum) -> new ItemSuggestionDto(rs.getLong("item_id"), rs.getString("name"),
+                        rs.getString("description"), rs.getLong("owner_id"), rs.getDouble("score")));
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What requests need to know of the acting user, as returned by {@link UserRepository#findIdentityById}.
+ */
+@Getter
+@AllArgsConstructor
+public class UserIdentity {
+    private final Long id;
+    private final String name;
+    private final String email;
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exceptions.NotFoundException;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of the users acting through {@code X-Sharer-User-Id}, so that checking the user of a request
+ * costs no query once the user is known. Only existing users are cached; a user is dropped when it is
+ * updated or deleted.
+ */
+@Slf4j
+@Component
+public class UserIdentityCache {
+
+    private final Cache<Long, UserIdentity> cache;
+    private final UserRepository userRepository;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${shareit.user.cache.max-size:10000}") long maxSize,
+                             @Value("${shareit.user.cache.ttl:10m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.userRepository = userRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userIdentity");
+    }
+
+    /**
+     * Returns the user, reading it only if it is not cached.
+     *
+     * @throws NotFoundException if there is no such user; {@code warnMessage} is logged then
+     */
+    public UserIdentity get(long userId, String warnMessage) {
+        UserIdentity user = cache.get(userId, id -> userRepository.findIdentityById(id).orElse(null));
+        if (user == null) {
+            log.warn(warnMessage);
+            throw new NotFoundException("User not found.");
+        }
+        return user;
+    }
+
+    /**
+     * Drops the user right away and once more when the surrounding transaction completes, so that the user
+     * read again by a concurrent request before the commit does not survive it.
+     */
+    public void invalidate(long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    List<User> findAllByIdGreaterThanOrderById(long id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.user.UserIdentity(u.id, u.name, u.email) from User u where u.id = :id")
+    Optional<UserIdentity> findIdentityById(@Param("id") long id);
 }
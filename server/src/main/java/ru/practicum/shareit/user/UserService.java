@@ -1,18 +1,17 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
-
 interface UserService {
 
     UserDto create(NewUserRequest request);
 
     UserDto update(UpdateUserRequest request, long userId);
 
-    List<UserDto> findAll();
+    CursorPage<UserDto> findAll(String cursor, int size);
 
     UserDto getUser(long id);
 
@@ -3,10 +3,16 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ApprovedBookingIndex;
+import ru.practicum.shareit.booking.BookingCounterRepository;
+import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.DuplicatedDataException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -14,7 +20,6 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -22,7 +27,12 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final BookingCounterRepository bookingCounterRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ApprovedBookingIndex approvedBookingIndex;
 
     @Override
     @Transactional
@@ -45,6 +55,7 @@ class UserServiceImpl implements UserService {
             return new NotFoundException("User not found");
         });
         UserMapper.updateUserFields(user, request);
+        userIdentityCache.invalidate(userId);
         try {
             userRepository.save(user);
             return UserMapper.mapToUserDto(user);
@@ -55,11 +66,19 @@ class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> findAll() {
-        return userRepository.findAll()
-                .stream()
-                .map(UserMapper::mapToUserDto)
-                .collect(Collectors.toList());
+    public CursorPage<UserDto> findAll(String cursor, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        // one user past the page only tells whether there is a next one
+        List<User> users = userRepository.findAllByIdGreaterThanOrderById(IdCursor.decode(cursor).getId(),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = IdCursor.after(users.getLast().getId()).encode();
+        }
+        return new CursorPage<>(users.stream().map(UserMapper::mapToUserDto).toList(), nextCursor);
     }
 
     @Override
@@ -74,6 +93,11 @@ class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(long id) {
+        // the user's bookings go with the user, so the owners of the booked items are counted anew
+        // and the booked items' approved periods are read anew
+        bookingCounterRepository.invalidateOwnersOfBooker(id);
+        approvedBookingIndex.invalidateItemsBookedBy(id);
+        userIdentityCache.invalidate(id);
         userRepository.deleteById(id);
     }
 }
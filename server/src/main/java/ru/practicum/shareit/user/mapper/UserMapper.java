@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.user.UserIdentity;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
@@ -17,6 +18,14 @@ public class UserMapper {
         return userDto;
     }
 
+    public static UserDto mapToUserDto(UserIdentity user) {
+        UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
+        userDto.setName(user.getName());
+        userDto.setEmail(user.getEmail());
+        return userDto;
+    }
+
     public static User mapToUser(NewUserRequest request) {
         User user = new User();
         user.setName(request.getName());
@@ -0,0 +1,10 @@
+-- approved periods of one item must not overlap; exclusion constraints have no IF NOT EXISTS, so it is added
+-- once here. The block body is single-quoted rather than dollar-quoted, because the script splitter only
+-- recognises ordinary quotes around the semicolons inside it.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_no_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
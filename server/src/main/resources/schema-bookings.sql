@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date TIMESTAMP NOT NULL,
+    end_date   TIMESTAMP NOT NULL,
+    item_id    BIGINT    NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    booker_id  BIGINT    NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status     VARCHAR(32) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_start_idx ON bookings (start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_end_idx ON bookings (end_date);
+
+-- the item's owner is copied into its bookings, so that the owner's booking list is read along an index as the
+-- booker's is; bookings written before the column existed are filled in once
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date DESC, booking_id DESC);
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.item_id = bookings.item_id)
+WHERE owner_id IS NULL;
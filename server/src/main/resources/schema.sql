@@ -20,19 +20,72 @@ CREATE TABLE IF NOT EXISTS items (
     request_id   BIGINT         REFERENCES requests(request_id)
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    start_date TIMESTAMP NOT NULL,
-    end_date   TIMESTAMP NOT NULL,
-    item_id    BIGINT    NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
-    booker_id  BIGINT    NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
-    status     VARCHAR(32) NOT NULL
-);
-
 CREATE TABLE IF NOT EXISTS comments (
     comment_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     text            VARCHAR(2000) NOT NULL,
     item_id         BIGINT        NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
     author_id       BIGINT        NOT NULL REFERENCES users(user_id),
     created_date    TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created_date DESC, comment_id DESC);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, item_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created_date DESC, request_id DESC);
+
+-- items suggested for requests by RequestMatcher
+CREATE TABLE IF NOT EXISTS request_suggestions (
+    request_id   BIGINT           NOT NULL REFERENCES requests(request_id) ON DELETE CASCADE,
+    item_id      BIGINT           NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    score        DOUBLE PRECISION NOT NULL,
+    created_date TIMESTAMP        NOT NULL,
+    PRIMARY KEY (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS request_suggestions_item_idx ON request_suggestions (item_id);
+
+-- booking counts per state of every booker and owner, see BookingCounterRepository
+CREATE TABLE IF NOT EXISTS booking_counters (
+    user_id       BIGINT      NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    role          VARCHAR(16) NOT NULL,
+    total         BIGINT      NOT NULL,
+    current_count BIGINT      NOT NULL,
+    past          BIGINT      NOT NULL,
+    future        BIGINT      NOT NULL,
+    waiting       BIGINT      NOT NULL,
+    rejected      BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, role)
+);
+
+-- the moment the current, past and future counts are computed at
+CREATE TABLE IF NOT EXISTS booking_counter_clock (
+    id            INT PRIMARY KEY,
+    reconciled_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO booking_counter_clock (id, reconciled_at) VALUES (1, NOW()) ON CONFLICT DO NOTHING;
+
+-- outbox of created and decided bookings, streamed to item owners by BookingEventStream
+CREATE TABLE IF NOT EXISTS booking_events (
+    event_id     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id   BIGINT    NOT NULL,
+    owner_id     BIGINT    NOT NULL,
+    created_date TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS booking_events_created_idx ON booking_events (created_date);
+
+-- the last event id handed out; appending events locks the row until commit, so that event ids are
+-- committed in order and the poller never passes an id that is committed later
+CREATE TABLE IF NOT EXISTS booking_event_clock (
+    id            INT PRIMARY KEY,
+    last_event_id BIGINT NOT NULL
+);
+
+INSERT INTO booking_event_clock (id, last_event_id)
+VALUES (1, (SELECT COALESCE(MAX(event_id), 0) FROM booking_events)) ON CONFLICT DO NOTHING;
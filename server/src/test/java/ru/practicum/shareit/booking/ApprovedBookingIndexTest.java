@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.*;
+
+class ApprovedBookingIndexTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ApprovedBookingIndex index = new ApprovedBookingIndex(bookingRepository, 100,
+            Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void overlaps_loadsItemOnce() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> approved = List.of(booking(1L, start, start.plusDays(1)));
+        when(bookingRepository.findApprovedEndingAfter(eq(7L), any())).thenReturn(approved);
+
+        assertThat(index.overlaps(7L, start.plusHours(1), start.plusHours(2)), equalTo(true));
+        assertThat(index.overlaps(7L, start.plusDays(2), start.plusDays(3)), equalTo(false));
+
+        verify(bookingRepository, times(1)).findApprovedEndingAfter(eq(7L), any());
+    }
+
+    @Test
+    void overlaps_doesNotKeepItemLoadedDuringInvalidation() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        AtomicBoolean invalidated = new AtomicBoolean();
+        when(bookingRepository.findApprovedEndingAfter(eq(7L), any())).thenAnswer(invocation -> {
+            if (!invalidated.getAndSet(true)) {
+                // the bookings read here are about to be deleted by a concurrent write
+                index.invalidate(List.of(7L));
+                return List.of(booking(1L, start, start.plusDays(1)));
+            }
+            return List.of();
+        });
+
+        assertThat(index.overlaps(7L, start, start.plusHours(1)), equalTo(true));
+        assertThat(index.overlaps(7L, start, start.plusHours(1)), equalTo(false));
+
+        verify(bookingRepository, times(2)).findApprovedEndingAfter(eq(7L), any());
+    }
+
+    @Test
+    void tryReserve_rejectsOverlapWithEarlierReservation() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findApprovedEndingAfter(eq(7L), any())).thenReturn(List.of());
+
+        assertThat(index.tryReserve(7L, 1L, start, start.plusDays(1)), equalTo(true));
+        assertThat(index.tryReserve(7L, 2L, start.plusHours(12), start.plusDays(2)), equalTo(false));
+        assertThat(index.tryReserve(7L, 3L, start.plusDays(1), start.plusDays(2)), equalTo(true));
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
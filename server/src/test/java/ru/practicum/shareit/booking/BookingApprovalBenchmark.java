@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares approving {@value #BATCH} waiting bookings one by one through {@link BookingService#approveOrReject}
+ * with a single {@link BookingService#approveOrRejectAll} call. Every invocation gets fresh bookings in periods
+ * that do not overlap, so the score is the time to approve {@value #BATCH} bookings. Runs on the in-memory
+ * database of the test profile. Run with {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingApprovalBenchmark {
+
+    private static final int BATCH = 50;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime nextStart;
+    private List<Long> bookingIds;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookingApprovalBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ownerId = userRepository.save(user("Owner", "approval-owner@ya.ru")).getId();
+        bookerId = userRepository.save(user("Booker", "approval-booker@ya.ru")).getId();
+        Item item = new Item();
+        item.setName("байдарка");
+        item.setDescription("по расписанию");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(ownerId));
+        itemId = context.getBean(ItemRepository.class).save(item).getId();
+        nextStart = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Setup(Level.Invocation)
+    public void createWaitingBookings() {
+        bookingIds = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            NewBookingRequest request = new NewBookingRequest();
+            request.setItemId(itemId);
+            request.setStart(nextStart);
+            request.setEnd(nextStart.plusMinutes(30));
+            bookingIds.add(bookingService.create(request, bookerId).getId());
+            nextStart = nextStart.plusHours(1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        for (Long bookingId : bookingIds) {
+            bookingService.approveOrReject(ownerId, bookingId, true);
+        }
+        return bookingIds.size();
+    }
+
+    @Benchmark
+    public int batch() {
+        return bookingService.approveOrRejectAll(ownerId, bookingIds.stream()
+                .map(bookingId -> new BookingDecisionRequest(bookingId, true))
+                .toList()).size();
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
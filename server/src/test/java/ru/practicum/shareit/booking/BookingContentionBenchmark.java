@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many bookings per second 64 threads create and approve for one item, with the item lock stripes
+ * of {@link BookingWriteExecutor} turned off (every writer relies on version checks and retries) and on.
+ * Writes that still fail after all retries are counted as {@code conflicts}. Runs on the in-memory database
+ * of the test profile; pass {@code -Dspring.profiles.active=} and datasource properties to use another one.
+ * Run with {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class BookingContentionBenchmark {
+
+    @Param({"0", "64"})
+    public int lockStripes;
+
+    private final AtomicLong slots = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime firstSlot;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookingContentionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("shareit.booking.write.lock-stripes=" + lockStripes,
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ownerId = userRepository.save(user("Owner", "contention-owner-" + lockStripes + "@ya.ru")).getId();
+        bookerId = userRepository.save(user("Booker", "contention-booker-" + lockStripes + "@ya.ru")).getId();
+        Item item = new Item();
+        item.setName("байдарка");
+        item.setDescription("одна на всех");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(ownerId));
+        itemId = context.getBean(ItemRepository.class).save(item).getId();
+        firstSlot = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto createAndApprove(Conflicts conflicts) {
+        LocalDateTime start = firstSlot.plusHours(slots.getAndIncrement());
+        NewBookingRequest request = new NewBookingRequest();
+        request.setItemId(itemId);
+        request.setStart(start);
+        request.setEnd(start.plusMinutes(30));
+        try {
+            BookingDto booking = bookingService.create(request, bookerId);
+            return bookingService.approveOrReject(ownerId, booking.getId(), true);
+        } catch (ConflictException e) {
+            conflicts.conflicts++;
+            return null;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -7,12 +7,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -39,6 +44,9 @@ class BookingControllerTest {
     @MockBean
     BookingService bookingService;
 
+    @MockBean
+    BookingEventStream bookingEventStream;
+
     @Test
     void create() throws Exception {
         NewBookingRequest newBookingRequest = new NewBookingRequest();
@@ -92,6 +100,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(BookingStatus.APPROVED.name()));
     }
 
+    @Test
+    void approveOrRejectAll() throws Exception {
+        List<BookingDecisionRequest> decisions = List.of(new BookingDecisionRequest(5L, true),
+                new BookingDecisionRequest(6L, false));
+        when(bookingService.approveOrRejectAll(20L, decisions)).thenReturn(List.of(
+                BookingDecisionResult.decided(5L, BookingStatus.APPROVED),
+                BookingDecisionResult.failed(6L, "Booking status is already decided.")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", "20")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(BookingStatus.APPROVED.name()))
+                .andExpect(jsonPath("$[1].error").value("Booking status is already decided."));
+    }
+
     @Test
     void reject() throws Exception {
         BookingDto resp = new BookingDto();
@@ -144,7 +169,7 @@ class BookingControllerTest {
         BookingDto b2 = new BookingDto();
         b2.setId(34L);
 
-        when(bookingService.getALLByBookerId(44L, BookingState.ALL)).thenReturn(List.of(b1, b2));
+        when(bookingService.getALLByBookerId(44L, BookingState.ALL, null, 20)).thenReturn(new CursorPage<>(List.of(b1, b2), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "44")
@@ -163,7 +188,7 @@ class BookingControllerTest {
         BookingDto b2 = new BookingDto();
          b2.setId(68L);
 
-        when(bookingService.getAllByItemOwnerId(55L, BookingState.PAST)).thenReturn(List.of(b1, b2));
+        when(bookingService.getAllByItemOwnerId(55L, BookingState.PAST, null, 20)).thenReturn(new CursorPage<>(List.of(b1, b2), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", "55")
@@ -175,6 +200,38 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].id").value(68));
     }
 
+    @Test
+    void getSummaries() throws Exception {
+        when(bookingService.getBookerSummary(44L)).thenReturn(new BookingSummaryDto(255, 0, 240, 12, 3, 1));
+        when(bookingService.getOwnerSummary(55L)).thenReturn(new BookingSummaryDto(7, 1, 2, 4, 0, 0));
+
+        mvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", "44")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(255))
+                .andExpect(jsonPath("$.past").value(240))
+                .andExpect(jsonPath("$.waiting").value(3));
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", "55")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.current").value(1))
+                .andExpect(jsonPath("$.future").value(4));
+    }
+
+    @Test
+    void streamOwnerBookings_startsAsyncStream() throws Exception {
+        when(bookingEventStream.subscribe(55L)).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", "55")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingEventStream).subscribe(55L);
+    }
+
     @Test
     void create_withEndBeforeStart_returns400() throws Exception {
         NewBookingRequest bad = new NewBookingRequest();
@@ -222,47 +279,47 @@ class BookingControllerTest {
 
     @Test
     void getAllByBooker_noState_usesALL_andCallsService() throws Exception {
-        when(bookingService.getALLByBookerId(44L, BookingState.ALL)).thenReturn(List.of());
+        when(bookingService.getALLByBookerId(44L, BookingState.ALL, null, 20)).thenReturn(new CursorPage<>(List.of(), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "44"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(0)));
 
-        verify(bookingService, times(1)).getALLByBookerId(44L, BookingState.ALL);
+        verify(bookingService, times(1)).getALLByBookerId(44L, BookingState.ALL, null, 20);
     }
 
     @Test
     void getAllByOwner_noState_usesALL_andCallsService() throws Exception {
-        when(bookingService.getAllByItemOwnerId(55L, BookingState.ALL)).thenReturn(List.of());
+        when(bookingService.getAllByItemOwnerId(55L, BookingState.ALL, null, 20)).thenReturn(new CursorPage<>(List.of(), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", "55"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(0)));
 
-        verify(bookingService, times(1)).getAllByItemOwnerId(55L, BookingState.ALL);
+        verify(bookingService, times(1)).getAllByItemOwnerId(55L, BookingState.ALL, null, 20);
     }
 
     @Test
     void getAllByBooker_paginationParams_arePassed() throws Exception {
-        // если контроллер поддерживает from/size
-        when(bookingService.getALLByBookerId(70L, BookingState.PAST)).thenReturn(List.of());
+        when(bookingService.getALLByBookerId(70L, BookingState.PAST, "MTA", 10))
+                .thenReturn(new CursorPage<>(List.of(), "MTE"));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "70")
                         .param("state", "PAST")
-                        .param("from", "5")
+                        .param("cursor", "MTA")
                         .param("size", "10"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "MTE"));
 
-        // Если в сервисе отдельный метод с pageable — подкорректируй verify.
-        verify(bookingService).getALLByBookerId(70L, BookingState.PAST);
+        verify(bookingService).getALLByBookerId(70L, BookingState.PAST, "MTA", 10);
     }
 
     @Test
     void getAllByBooker_emptyList_returnsEmptyArray() throws Exception {
-        when(bookingService.getALLByBookerId(44L, BookingState.PAST)).thenReturn(List.of());
+        when(bookingService.getALLByBookerId(44L, BookingState.ALL, null, 20)).thenReturn(new CursorPage<>(List.of(), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "44")
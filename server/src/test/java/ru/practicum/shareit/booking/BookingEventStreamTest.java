@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against committed data, as the stream reads the outbox outside of the writing transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingEventStreamTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    BookingEventStream bookingEventStream;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("Owner", "stream-owner@ya.ru");
+        booker = saveUser("Booker", "stream-booker@ya.ru");
+        stranger = saveUser("Stranger", "stream-stranger@ya.ru");
+        item = new Item();
+        item.setName("палатка");
+        item.setDescription("трёхместная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.delete(stranger);
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void stream_pushesCreatedAndDecidedBookingsToTheOwnerOnly() throws Exception {
+        MvcResult ownerStream = subscribe(owner.getId());
+        MvcResult strangerStream = subscribe(stranger.getId());
+
+        NewBookingRequest request = new NewBookingRequest();
+        request.setItemId(item.getId());
+        request.setStart(LocalDateTime.now().plusDays(1));
+        request.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.create(request, booker.getId()).getId();
+        bookingEventStream.publishNewEvents();
+
+        String received = awaitContent(ownerStream, "\"id\":" + bookingId);
+        assertThat(received, containsString("event:booking"));
+        assertThat(received, containsString("\"id\":" + bookingId));
+        assertThat(received, containsString("\"status\":\"WAITING\""));
+
+        bookingService.approveOrReject(owner.getId(), bookingId, true);
+        bookingEventStream.publishNewEvents();
+        // published again, the decided booking is not sent twice
+        bookingEventStream.publishNewEvents();
+
+        received = awaitContent(ownerStream, "\"status\":\"APPROVED\"");
+        assertThat(received, containsString("\"status\":\"APPROVED\""));
+        assertThat(received.indexOf("\"status\":\"APPROVED\""),
+                equalTo(received.lastIndexOf("\"status\":\"APPROVED\"")));
+        assertThat(strangerStream.getResponse().getContentAsString(), not(containsString("event:booking")));
+    }
+
+    @Test
+    void stream_pushesEventsWrittenLongBeforeTheyAreRead() throws Exception {
+        MvcResult ownerStream = subscribe(owner.getId());
+
+        NewBookingRequest request = new NewBookingRequest();
+        request.setItemId(item.getId());
+        request.setStart(LocalDateTime.now().plusDays(3));
+        request.setEnd(LocalDateTime.now().plusDays(4));
+        Long bookingId = bookingService.create(request, booker.getId()).getId();
+        // as the event of a transaction that commits long after it was appended
+        jdbcTemplate.update("UPDATE booking_events SET created_date = ? WHERE booking_id = ?",
+                LocalDateTime.now().minusHours(1), bookingId);
+        bookingEventStream.publishNewEvents();
+
+        assertThat(awaitContent(ownerStream, "\"id\":" + bookingId), containsString("\"id\":" + bookingId));
+    }
+
+    @Test
+    void stream_unknownUser_returns404() throws Exception {
+        mvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", "999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult subscribe(long ownerId) throws Exception {
+        return mvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /**
+     * Waits for the stream writer to write the text, as events are written out off the polling thread.
+     */
+    private String awaitContent(MvcResult stream, String text) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String content = stream.getResponse().getContentAsString();
+            if (content.contains(text)) {
+                return content;
+            }
+            Thread.sleep(50);
+        }
+        return stream.getResponse().getContentAsString();
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
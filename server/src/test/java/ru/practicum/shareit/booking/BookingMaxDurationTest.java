@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.booking.max-duration=365d")
+@ActiveProfiles("test")
+@Transactional
+class BookingMaxDurationTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    BookingServiceImpl bookingService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void create_longerThanMaxDuration_shouldFail() {
+        User owner = saveUser("OwnL", "ownl@ya.ru");
+        Item item = saveItem("yacht", owner);
+        User booker = saveUser("BookL", "bookl@ya.ru");
+
+        NewBookingRequest req = new NewBookingRequest();
+        req.setStart(LocalDateTime.now().plusDays(1));
+        req.setEnd(LocalDateTime.now().plusDays(367));
+        req.setItemId(item.getId());
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookingService.create(req, booker.getId()));
+        assertThat(ex.getMessage(), equalTo("A booking can not be longer than 365 days."));
+    }
+
+    @Test
+    void bookingLists_current_skipsBookingsStartedBeforeMaxDuration() {
+        User owner = saveUser("OwnM", "ownm@ya.ru");
+        Item item = saveItem("boat", owner);
+        User booker = saveUser("BookM", "bookm@ya.ru");
+        LocalDateTime now = LocalDateTime.now();
+        Long recent = saveBooking(item, booker, now.minusDays(1), now.plusDays(1));
+        Long ancient = saveBooking(item, booker, now.minusDays(400), now.plusDays(2));
+
+        List<Long> current = bookingService.getALLByBookerId(booker.getId(), BookingState.CURRENT, null, 20)
+                .getItems().stream().map(BookingDto::getId).toList();
+        List<Long> all = bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 20)
+                .getItems().stream().map(BookingDto::getId).toList();
+
+        assertThat(current, contains(recent));
+        assertThat(all, contains(recent, ancient));
+    }
+
+    @Test
+    void bookingLists_waiting_keepsOldBookingsWhileTheExpiryJobIsDisabled() {
+        User owner = saveUser("OwnW", "ownw@ya.ru");
+        Item item = saveItem("raft", owner);
+        User booker = saveUser("BookW", "bookw@ya.ru");
+        LocalDateTime now = LocalDateTime.now();
+        Long recent = saveBooking(item, booker, now.minusDays(1), now.plusDays(1));
+        Long ancient = saveBooking(item, booker, now.minusDays(400), now.plusDays(2));
+
+        List<Long> waiting = bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20)
+                .getItems().stream().map(BookingDto::getId).toList();
+
+        assertThat(waiting, contains(recent, ancient));
+    }
+
+    @Test
+    void getAvailability_seesBookingsStartedUpToMaxDurationBeforeThePeriod() {
+        User owner = saveUser("OwnA", "owna@ya.ru");
+        Item item = saveItem("tent", owner);
+        User booker = saveUser("BookA", "booka@ya.ru");
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        saveBooking(item, booker, from.minusDays(300), from.plusHours(2));
+
+        assertThat(itemService.getAvailability(item.getId(), booker.getId(), from, from.plusDays(1)),
+                contains(new TimeSlotDto(from.plusHours(2), from.plusDays(1))));
+    }
+
+    private Long saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.WAITING);
+        return bookingRepository.save(booking).getId();
+    }
+
+    private User saveUser(String name, String email) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail(email);
+        return userRepository.save(u);
+    }
+
+    private Item saveItem(String name, User owner) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+}
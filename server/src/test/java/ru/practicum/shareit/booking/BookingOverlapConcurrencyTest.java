@@ -0,0 +1,188 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs against committed data, so that parallel transactions see each other.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingOverlapConcurrencyTest {
+
+    private static final int REQUESTS = 32;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("Owner", "overlap-owner@ya.ru");
+        booker = saveUser("Booker", "overlap-booker@ya.ru");
+        item = new Item();
+        item.setName("байдарка");
+        item.setDescription("двухместная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        start = LocalDateTime.now().plusDays(10).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // bookings go with the item, see ON DELETE CASCADE
+        itemRepository.deleteById(item.getId());
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void parallelApprovals_ofOverlappingBookings_approveExactlyOne() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStart(start.plusHours(i % 5));
+            booking.setEnd(start.plusDays(1).plusHours(i % 7));
+            booking.setStatus(BookingStatus.WAITING);
+            bookingIds.add(bookingRepository.save(booking).getId());
+        }
+
+        AtomicInteger conflicts = new AtomicInteger();
+        runInParallel(bookingIds.stream().<Callable<Void>>map(id -> () -> {
+            try {
+                bookingService.approveOrReject(owner.getId(), id, true);
+            } catch (ConflictException e) {
+                conflicts.incrementAndGet();
+            }
+            return null;
+        }).toList());
+
+        long approved = bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count();
+        assertThat(approved, equalTo(1L));
+        assertThat(conflicts.get(), equalTo(REQUESTS - 1));
+    }
+
+    @Test
+    void parallelCreates_overlappingApprovedBooking_areRejected() throws Exception {
+        Long approvedId = bookingService.create(request(start, start.plusDays(2)), booker.getId()).getId();
+        bookingService.approveOrReject(owner.getId(), approvedId, true);
+
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<Void>> creates = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDateTime from = start.minusHours(12).plusHours(i);
+            creates.add(() -> {
+                try {
+                    bookingService.create(request(from, from.plusHours(13)), booker.getId());
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        runInParallel(creates);
+
+        assertThat(conflicts.get(), equalTo(REQUESTS));
+        bookingService.create(request(start.plusDays(2), start.plusDays(3)), booker.getId());
+    }
+
+    @Test
+    void parallelDecisions_ofOneBooking_decideItOnce() throws Exception {
+        Long bookingId = bookingService.create(request(start, start.plusDays(1)), booker.getId()).getId();
+
+        AtomicInteger decided = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Callable<Void>> decisions = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean approve = i % 2 == 0;
+            decisions.add(() -> {
+                try {
+                    bookingService.approveOrReject(owner.getId(), bookingId, approve);
+                    decided.incrementAndGet();
+                } catch (BadRequestException | ConflictException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        runInParallel(decisions);
+
+        assertThat(decided.get(), equalTo(1));
+        assertThat(refused.get(), equalTo(REQUESTS - 1));
+    }
+
+    private void runInParallel(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return task.call();
+                }));
+            }
+            ready.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private NewBookingRequest request(LocalDateTime from, LocalDateTime to) {
+        NewBookingRequest request = new NewBookingRequest();
+        request.setItemId(item.getId());
+        request.setStart(from);
+        request.setEnd(to);
+        return request;
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.*;
+
+class BookingPartitionMaintainerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void maintain_createsMissingMonthsAndArchivesExpiredOnes() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class)))
+                .thenReturn(List.of("bookings_default", "bookings_p202301", "bookings_p202610"));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT min"), eq(LocalDateTime.class)))
+                .thenReturn(LocalDateTime.of(2026, 9, 15, 12, 0));
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionManager, 1, 24);
+
+        maintainer.maintain(YearMonth.of(2026, 10));
+
+        // September still has rows in the default partition, November is the month ahead
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202609 "));
+        verify(jdbcTemplate).execute("ALTER TABLE bookings ATTACH PARTITION bookings_p202609 " +
+                "FOR VALUES FROM ('2026-09-01') TO ('2026-10-01')");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202611 "));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE bookings_p202610 "));
+        verify(jdbcTemplate).execute("ALTER TABLE bookings DETACH PARTITION bookings_p202301");
+        verify(jdbcTemplate).execute("ALTER TABLE bookings_p202301 RENAME TO bookings_archive_p202301");
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void maintain_failedMonth_isSkippedAndFollowingMonthsAreCreated() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class)))
+                .thenReturn(List.of("bookings_default"));
+        doThrow(new DataIntegrityViolationException("overlap"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202610 "));
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionManager, 2, 0);
+
+        maintainer.maintain(YearMonth.of(2026, 10));
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202611 "));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202612 "));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void maintain_unpartitionedTable_isLeftAlone() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+        BookingPartitionMaintainer maintainer = new BookingPartitionMaintainer(jdbcTemplate, transactionManager, 3, 24);
+
+        maintainer.maintain(YearMonth.of(2026, 10));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void monthOf_readsMonthlyPartitionsOnly() {
+        assertThat(BookingPartitionMaintainer.monthOf(BookingPartitionMaintainer.partitionName(YearMonth.of(2026, 1))),
+                equalTo(YearMonth.of(2026, 1)));
+        assertThat(BookingPartitionMaintainer.monthOf("bookings_default"), nullValue());
+        assertThat(BookingPartitionMaintainer.monthOf("bookings_pending"), nullValue());
+    }
+}
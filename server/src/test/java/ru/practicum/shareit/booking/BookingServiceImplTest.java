@@ -1,28 +1,40 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -42,6 +54,15 @@ class BookingServiceImplTest {
     @Autowired
     BookingServiceImpl bookingService;
 
+    @Autowired
+    BookingCounterReconciliationJob reconciliationJob;
+
+    @Autowired
+    ApprovedBookingIndex approvedBookingIndex;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     void testCreate() {
         User user = saveUser("Ivan", "qwer@ya.ru");
@@ -125,9 +146,9 @@ class BookingServiceImplTest {
         newBookingRequest2.setEnd(LocalDateTime.now().plusDays(4));
         newBookingRequest2.setItemId(item2.getId());
         BookingDto bookingDto2 = bookingService.create(newBookingRequest2, user4.getId());
-        List<BookingDto> bookingDtos = bookingService.getALLByBookerId(user4.getId(), BookingState.ALL);
+        List<BookingDto> bookingDtos = bookingService.getALLByBookerId(user4.getId(), BookingState.ALL, null, 20).getItems();
         assertThat(bookingDtos.getFirst().getItem().getName(), equalTo(item2.getName()));
-        List<BookingDto> bookingDtos2 = bookingService.getAllByItemOwnerId(user.getId(), BookingState.ALL);
+        List<BookingDto> bookingDtos2 = bookingService.getAllByItemOwnerId(user.getId(), BookingState.ALL, null, 20).getItems();
         assertThat(bookingDtos2.getFirst().getItem().getName(), equalTo(item.getName()));
     }
 
@@ -252,15 +273,15 @@ class BookingServiceImplTest {
         BookingDto rejected = bookingService.approveOrReject(owner.getId(), future.getId(), false);
         assertThat(rejected.getStatus(), equalTo(BookingStatus.REJECTED));
 
-        List<BookingDto> waiting = bookingService.getALLByBookerId(booker.getId(), BookingState.WAITING);
+        List<BookingDto> waiting = bookingService.getALLByBookerId(booker.getId(), BookingState.WAITING, null, 20).getItems();
         assertThat(waiting, notNullValue());
 
-        List<BookingDto> rejectedList = bookingService.getALLByBookerId(booker.getId(), BookingState.REJECTED);
+        List<BookingDto> rejectedList = bookingService.getALLByBookerId(booker.getId(), BookingState.REJECTED, null, 20).getItems();
         assertThat(rejectedList.stream().anyMatch(b -> b.getId().equals(rejected.getId())), equalTo(true));
 
-        List<BookingDto> futureList  = bookingService.getALLByBookerId(booker.getId(), BookingState.FUTURE);
-        List<BookingDto> pastList    = bookingService.getALLByBookerId(booker.getId(), BookingState.PAST);
-        List<BookingDto> currentList = bookingService.getALLByBookerId(booker.getId(), BookingState.CURRENT);
+        List<BookingDto> futureList  = bookingService.getALLByBookerId(booker.getId(), BookingState.FUTURE, null, 20).getItems();
+        List<BookingDto> pastList    = bookingService.getALLByBookerId(booker.getId(), BookingState.PAST, null, 20).getItems();
+        List<BookingDto> currentList = bookingService.getALLByBookerId(booker.getId(), BookingState.CURRENT, null, 20).getItems();
 
         assertThat(futureList.stream().allMatch(b -> b.getStart().isAfter(now)), equalTo(true));
         assertThat(pastList.stream().allMatch(b -> b.getEnd().isBefore(now)), equalTo(true));
@@ -289,6 +310,38 @@ class BookingServiceImplTest {
         );
     }
 
+    @Test
+    void create_longBooking_isAllowedWithoutMaxDuration() {
+        User owner = saveUser("OwnL", "ownl@ya.ru");
+        Item item = saveItem("yacht", "long", owner);
+        User booker = saveUser("BookL", "bookl@ya.ru");
+
+        NewBookingRequest req = new NewBookingRequest();
+        req.setStart(LocalDateTime.now().plusDays(1));
+        req.setEnd(LocalDateTime.now().plusDays(367));
+        req.setItemId(item.getId());
+
+        assertThat(bookingService.create(req, booker.getId()).getId(), notNullValue());
+    }
+
+    @Test
+    void bookingLists_currentAndWaiting_includeLongRunningBookingsWithoutMaxDuration() {
+        User owner = saveUser("OwnM", "ownm@ya.ru");
+        Item item = saveItem("boat", "old", owner);
+        User booker = saveUser("BookM", "bookm@ya.ru");
+        LocalDateTime now = LocalDateTime.now();
+        Long recent = saveBooking(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.WAITING);
+        Long ancient = saveBooking(item, booker, now.minusDays(400), now.plusDays(2), BookingStatus.WAITING);
+
+        List<Long> current = bookingService.getALLByBookerId(booker.getId(), BookingState.CURRENT, null, 20)
+                .getItems().stream().map(BookingDto::getId).toList();
+        List<Long> waiting = bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20)
+                .getItems().stream().map(BookingDto::getId).toList();
+
+        assertThat(current, contains(recent, ancient));
+        assertThat(waiting, contains(recent, ancient));
+    }
+
     @Test
     void create_nullStartOrEnd_shouldThrow() {
         User owner = saveUser("Own2","o2@end");
@@ -345,11 +398,281 @@ class BookingServiceImplTest {
         bookingService.create(f, booker.getId());
 
         // Проверяем несколько состояний у owner
-        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING);
-        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.REJECTED);
-        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.FUTURE);
+        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20).getItems();
+        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.REJECTED, null, 20).getItems();
+        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.FUTURE, null, 20).getItems();
+    }
+
+    @Test
+    void approveAndCreate_overlappingApprovedBooking_shouldConflict() {
+        User owner = saveUser("OwnO", "owno@ya.ru");
+        Item item = saveItem("tent", "big", owner);
+        User booker = saveUser("BookO", "booko@ya.ru");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        NewBookingRequest first = new NewBookingRequest();
+        first.setItemId(item.getId());
+        first.setStart(start);
+        first.setEnd(start.plusDays(2));
+        BookingDto firstBooking = bookingService.create(first, booker.getId());
+
+        NewBookingRequest second = new NewBookingRequest();
+        second.setItemId(item.getId());
+        second.setStart(start.plusDays(1));
+        second.setEnd(start.plusDays(3));
+        BookingDto secondBooking = bookingService.create(second, booker.getId());
+
+        bookingService.approveOrReject(owner.getId(), firstBooking.getId(), true);
+        assertThrows(ConflictException.class,
+                () -> bookingService.approveOrReject(owner.getId(), secondBooking.getId(), true));
+        assertThrows(ConflictException.class, () -> bookingService.create(second, booker.getId()));
+
+        NewBookingRequest adjacent = new NewBookingRequest();
+        adjacent.setItemId(item.getId());
+        adjacent.setStart(start.plusDays(2));
+        adjacent.setEnd(start.plusDays(3));
+        assertThat(bookingService.create(adjacent, booker.getId()).getId(), notNullValue());
+    }
+
+    @Test
+    void bookingLists_statementCountDoesNotGrowWithResultSize() {
+        User owner = saveUser("Owner", "n1owner@ya.ru");
+        User booker = saveUser("Booker", "n1booker@ya.ru");
+        saveBooking(saveItem("item", "first", owner), booker, BookingStatus.WAITING);
+        // the owner is read once, then taken from the user cache
+        bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20);
+
+        long bookerStatements = countStatements(() -> bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 20).getItems());
+        long ownerStatements = countStatements(() ->
+                bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20).getItems());
+
+        for (int i = 0; i < 5; i++) {
+            User otherBooker = saveUser("Booker " + i, "n1booker" + i + "@ya.ru");
+            saveBooking(saveItem("item " + i, "more", owner), otherBooker, BookingStatus.WAITING);
+            saveBooking(saveItem("item for booker " + i, "more", saveUser("Owner " + i, "n1owner" + i + "@ya.ru")),
+                    booker, BookingStatus.WAITING);
+        }
+
+        assertThat(bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 20).getItems().size(), equalTo(6));
+        assertThat(bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20).getItems().size(), equalTo(6));
+        assertThat(countStatements(() -> bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 20).getItems()),
+                equalTo(bookerStatements));
+        assertThat(countStatements(() -> bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING, null, 20).getItems()),
+                equalTo(ownerStatements));
     }
 
+    @Test
+    void approve_overlapMissedByTheIndex_shouldConflict() {
+        User owner = saveUser("OwnX", "ownx@ya.ru");
+        Item item = saveItem("kayak", "red", owner);
+        Item other = saveItem("canoe", "green", owner);
+        User booker = saveUser("BookX", "bookx@ya.ru");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long waiting = saveBooking(item, booker, start, start.plusDays(2), BookingStatus.WAITING);
+        Long otherWaiting = saveBooking(other, booker, start, start.plusDays(2), BookingStatus.WAITING);
+        // the items are loaded into the index before approvals it does not follow, as those of another instance
+        assertThat(approvedBookingIndex.overlaps(item.getId(), start, start.plusDays(2)), equalTo(false));
+        assertThat(approvedBookingIndex.overlaps(other.getId(), start, start.plusDays(2)), equalTo(false));
+        saveBooking(item, booker, start.plusHours(12), start.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(other, booker, start.plusDays(1), start.plusDays(3), BookingStatus.APPROVED);
+
+        assertThrows(ConflictException.class, () -> bookingService.approveOrReject(owner.getId(), waiting, true));
+        assertThrows(ConflictException.class, () -> bookingService.approveOrRejectAll(owner.getId(),
+                List.of(new BookingDecisionRequest(otherWaiting, true))));
+    }
+
+    @Test
+    void approveOrRejectAll_decidesValidBookingsAndReportsTheRest() {
+        User owner = saveUser("Owner", "batch-owner@ya.ru");
+        User stranger = saveUser("Stranger", "batch-stranger@ya.ru");
+        User booker = saveUser("Booker", "batch-booker@ya.ru");
+        Item item = saveItem("tent", "big", owner);
+        Item strangerItem = saveItem("boat", "small", stranger);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Long approved = saveBooking(item, booker, start, start.plusDays(1), BookingStatus.WAITING);
+        Long overlapping = saveBooking(item, booker, start.plusHours(1), start.plusHours(2), BookingStatus.WAITING);
+        Long rejected = saveBooking(item, booker, start.plusDays(5), start.plusDays(6), BookingStatus.WAITING);
+        Long decided = saveBooking(item, booker, start.plusDays(7), start.plusDays(8), BookingStatus.REJECTED);
+        Long foreign = saveBooking(strangerItem, booker, start, start.plusDays(1), BookingStatus.WAITING);
+
+        List<BookingDecisionResult> results = bookingService.approveOrRejectAll(owner.getId(), List.of(
+                new BookingDecisionRequest(approved, true),
+                new BookingDecisionRequest(overlapping, true),
+                new BookingDecisionRequest(rejected, false),
+                new BookingDecisionRequest(decided, true),
+                new BookingDecisionRequest(foreign, true),
+                new BookingDecisionRequest(987_654L, true),
+                new BookingDecisionRequest(rejected, true)));
+
+        assertThat(results.stream().map(BookingDecisionResult::getBookingId).toList(),
+                contains(approved, overlapping, rejected, decided, foreign, 987_654L, rejected));
+        assertThat(results.stream().map(BookingDecisionResult::getStatus).toList(),
+                contains(BookingStatus.APPROVED, null, BookingStatus.REJECTED, null, null, null, null));
+        assertThat(results.get(1).getError(), equalTo("The item is already booked for this period."));
+        assertThat(results.get(3).getError(), equalTo("Booking status is already decided."));
+        assertThat(results.get(5).getError(), equalTo("Booking not found."));
+        assertThat(bookingRepository.findById(approved).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingRepository.findById(overlapping).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookingRepository.findById(rejected).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingRepository.findById(foreign).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approveOrRejectAll_invalidBatch_shouldFail() {
+        User owner = saveUser("Owner", "batch-bad@ya.ru");
+
+        assertThrows(BadRequestException.class, () -> bookingService.approveOrRejectAll(owner.getId(), List.of()));
+        assertThrows(BadRequestException.class, () -> bookingService.approveOrRejectAll(owner.getId(),
+                List.of(new BookingDecisionRequest(1L, null))));
+    }
+
+    @Test
+    void bookingLists_readOneStatementWithoutLoadingEntities() {
+        User owner = saveUser("Owner", "rows-owner@ya.ru");
+        User booker = saveUser("Booker", "rows-booker@ya.ru");
+        for (int i = 0; i < 3; i++) {
+            saveBooking(saveItem("item " + i, "rows", owner), booker, BookingStatus.WAITING);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (BookingState state : BookingState.values()) {
+            statistics.clear();
+            List<BookingDto> bookings = bookingService.getALLByBookerId(booker.getId(), state, null, 20).getItems();
+
+            assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+            assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+            assertThat(bookings.size(), equalTo(state == BookingState.ALL || state == BookingState.WAITING
+                    || state == BookingState.FUTURE ? 3 : 0));
+        }
+        BookingDto booking = bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 1).getItems().getFirst();
+        assertThat(booking.getItem().getName(), equalTo("item 2"));
+        assertThat(booking.getBooker().getEmail(), equalTo("rows-booker@ya.ru"));
+    }
+
+    @Test
+    void bookingLists_pageWithCursorNewestFirst() {
+        User owner = saveUser("Owner", "pages-owner@ya.ru");
+        User booker = saveUser("Booker", "pages-booker@ya.ru");
+        Item item = saveItem("tent", "big", owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            // two bookings share every start, so that the id breaks the tie
+            booking.setStart(start.plusDays(i / 2));
+            booking.setEnd(start.plusDays(i / 2).plusHours(1));
+            booking.setStatus(BookingStatus.WAITING);
+            ids.add(bookingRepository.save(booking).getId());
+        }
+
+        CursorPage<BookingDto> first = bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 2);
+        CursorPage<BookingDto> second = bookingService.getALLByBookerId(booker.getId(), BookingState.ALL,
+                first.getNextCursor(), 2);
+        CursorPage<BookingDto> third = bookingService.getAllByItemOwnerId(owner.getId(), BookingState.WAITING,
+                second.getNextCursor(), 2);
+
+        assertThat(first.getItems().stream().map(BookingDto::getId).toList(), contains(ids.get(4), ids.get(3)));
+        assertThat(second.getItems().stream().map(BookingDto::getId).toList(), contains(ids.get(2), ids.get(1)));
+        assertThat(third.getItems().stream().map(BookingDto::getId).toList(), contains(ids.get(0)));
+        assertThat(third.getNextCursor(), nullValue());
+        assertThat(bookingService.getALLByBookerId(booker.getId(), BookingState.FUTURE, first.getNextCursor(), 2)
+                .getItems().stream().map(BookingDto::getId).toList(), contains(ids.get(2), ids.get(1)));
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, null, 0));
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getALLByBookerId(booker.getId(), BookingState.ALL, "broken", 2));
+    }
+
+    @Test
+    void ownerBookings_pageAcrossItemsNewestFirst() {
+        User owner = saveUser("Owner", "owner-pages@ya.ru");
+        User booker = saveUser("Booker", "owner-pages-booker@ya.ru");
+        Item tent = saveItem("tent", "big", owner);
+        Item kayak = saveItem("kayak", "double", owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(saveBooking(i % 2 == 0 ? tent : kayak, booker, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    BookingStatus.WAITING));
+        }
+
+        CursorPage<BookingDto> first = bookingService.getAllByItemOwnerId(owner.getId(), BookingState.ALL, null, 3);
+        CursorPage<BookingDto> second = bookingService.getAllByItemOwnerId(owner.getId(), BookingState.ALL,
+                first.getNextCursor(), 3);
+
+        assertThat(first.getItems().stream().map(BookingDto::getId).toList(),
+                contains(ids.get(3), ids.get(2), ids.get(1)));
+        assertThat(second.getItems().stream().map(BookingDto::getId).toList(), contains(ids.get(0)));
+        assertThat(second.getNextCursor(), nullValue());
+        assertThat(bookingRepository.findById(ids.getFirst()).orElseThrow().getOwnerId(), equalTo(owner.getId()));
+    }
+
+    @Test
+    void summaries_countBookingsPerStateAndFollowTheClock() {
+        User owner = saveUser("Owner", "summary-owner@ya.ru");
+        User booker = saveUser("Booker", "summary-booker@ya.ru");
+        Item item = saveItem("kayak", "double", owner);
+        assertThat(bookingService.getBookerSummary(booker.getId()), equalTo(new BookingSummaryDto(0, 0, 0, 0, 0, 0)));
+        assertThat(bookingService.getOwnerSummary(owner.getId()), equalTo(new BookingSummaryDto(0, 0, 0, 0, 0, 0)));
+
+        LocalDateTime now = LocalDateTime.now();
+        NewBookingRequest first = new NewBookingRequest();
+        first.setItemId(item.getId());
+        first.setStart(now.plusDays(1));
+        first.setEnd(now.plusDays(2));
+        NewBookingRequest second = new NewBookingRequest();
+        second.setItemId(item.getId());
+        second.setStart(now.plusDays(3));
+        second.setEnd(now.plusDays(4));
+        BookingDto approved = bookingService.create(first, booker.getId());
+        BookingDto rejected = bookingService.create(second, booker.getId());
+        assertThat(bookingService.getBookerSummary(booker.getId()), equalTo(new BookingSummaryDto(2, 0, 0, 2, 2, 0)));
+
+        bookingService.approveOrReject(owner.getId(), approved.getId(), true);
+        bookingService.approveOrRejectAll(owner.getId(), List.of(new BookingDecisionRequest(rejected.getId(), false)));
+        assertThat(bookingService.getBookerSummary(booker.getId()), equalTo(new BookingSummaryDto(2, 0, 0, 2, 0, 1)));
+        assertThat(bookingService.getOwnerSummary(owner.getId()), equalTo(new BookingSummaryDto(2, 0, 0, 2, 0, 1)));
+
+        reconciliationJob.reconcileUntil(now.plusDays(1).plusHours(12));
+        assertThat(bookingService.getBookerSummary(booker.getId()), equalTo(new BookingSummaryDto(2, 1, 0, 1, 0, 1)));
+        reconciliationJob.reconcileUntil(now.plusDays(5));
+        assertThat(bookingService.getOwnerSummary(owner.getId()), equalTo(new BookingSummaryDto(2, 0, 2, 0, 0, 1)));
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookerSummary(999_999L));
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void saveBooking(Item item, User booker, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+
+    private Long saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking).getId();
+    }
 
     private User saveUser(String name, String email) {
         User u = new User();
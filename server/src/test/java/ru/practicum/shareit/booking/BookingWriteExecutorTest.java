@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exceptions.ConflictException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class BookingWriteExecutorTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void execute_repeatsWriteThatLostVersionCheck() {
+        BookingWriteExecutor executor = new BookingWriteExecutor(transactionManager, 3, 4);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute(() -> 7L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+
+        assertThat(result, equalTo("done"));
+        assertThat(calls.get(), equalTo(3));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_givesUpAfterMaxAttempts() {
+        BookingWriteExecutor executor = new BookingWriteExecutor(transactionManager, 2, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ConflictException.class, () -> executor.execute(() -> 7L, () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        }));
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void execute_withoutStripes_doesNotLookUpItem() {
+        BookingWriteExecutor executor = new BookingWriteExecutor(transactionManager, 3, 0);
+
+        String result = executor.execute(() -> {
+            throw new AssertionError("item looked up");
+        }, () -> "done");
+
+        assertThat(result, equalTo("done"));
+    }
+}
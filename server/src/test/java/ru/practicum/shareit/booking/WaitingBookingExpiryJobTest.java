@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+
+@Transactional
+@SpringBootTest(properties = {"shareit.booking.expiry.batch-size=2", "shareit.booking.expiry.pause=0s"})
+@ActiveProfiles("test")
+class WaitingBookingExpiryJobTest {
+
+    @Autowired
+    WaitingBookingExpiryJob expiryJob;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void expireStartedBefore_expiresOnlyWaitingBookingsThatStarted() {
+        User owner = saveUser("Owner", "expiry-owner@ya.ru");
+        User booker = saveUser("Booker", "expiry-booker@ya.ru");
+        Item item = saveItem(owner);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Long> stale = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            // two of them share the start, so that chunks are split on the id too
+            stale.add(saveBooking(item, booker, now.minusDays(i / 2 + 1), BookingStatus.WAITING));
+        }
+        Long upcoming = saveBooking(item, booker, now.plusDays(1), BookingStatus.WAITING);
+        Long approved = saveBooking(item, booker, now.minusDays(10), BookingStatus.APPROVED);
+        assertThat(bookingService.getOwnerSummary(owner.getId()).getWaiting(), equalTo(6L));
+
+        assertThat(expiryJob.expireStartedBefore(now), equalTo(5));
+
+        assertThat(bookingRepository.findAllById(stale).stream().map(Booking::getStatus).toList(),
+                everyItem(equalTo(BookingStatus.EXPIRED)));
+        assertThat(bookingRepository.findById(upcoming).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookingRepository.findById(approved).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.getOwnerSummary(owner.getId()).getWaiting(), equalTo(1L));
+        assertThat(expiryJob.expireStartedBefore(now), equalTo(0));
+    }
+
+    @Test
+    void expireStartedBefore_singleChunk_expiresFromTheFirstChunkQuery() {
+        User owner = saveUser("Owner", "expiry-first-owner@ya.ru");
+        User booker = saveUser("Booker", "expiry-first-booker@ya.ru");
+        Item item = saveItem(owner);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Long stale = saveBooking(item, booker, now.minusDays(1), BookingStatus.WAITING);
+
+        assertThat(expiryJob.expireStartedBefore(now), equalTo(1));
+
+        assertThat(bookingRepository.findById(stale).orElseThrow().getStatus(), equalTo(BookingStatus.EXPIRED));
+    }
+
+    @Test
+    void lockWaiting_leavesOutBookingsDecidedSinceTheyWereRead() {
+        User owner = saveUser("Owner", "expiry-lock-owner@ya.ru");
+        User booker = saveUser("Booker", "expiry-lock-booker@ya.ru");
+        Item item = saveItem(owner);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Long waiting = saveBooking(item, booker, now.minusDays(2), BookingStatus.WAITING);
+        Long decided = saveBooking(item, booker, now.minusDays(1), BookingStatus.WAITING);
+        bookingRepository.decideWaiting(List.of(decided), BookingStatus.APPROVED);
+
+        assertThat(bookingRepository.lockWaiting(List.of(waiting, decided)), contains(waiting));
+    }
+
+    @Test
+    void findWaitingStartedBefore_firstAndFollowingChunksWalkTheKeysInStartOrder() {
+        User owner = saveUser("Owner", "expiry-keys-owner@ya.ru");
+        User booker = saveUser("Booker", "expiry-keys-booker@ya.ru");
+        Item item = saveItem(owner);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Long oldest = saveBooking(item, booker, now.minusDays(3), BookingStatus.WAITING);
+        Long sameStartFirst = saveBooking(item, booker, now.minusDays(2), BookingStatus.WAITING);
+        Long sameStartSecond = saveBooking(item, booker, now.minusDays(2), BookingStatus.WAITING);
+
+        List<BookingKey> first = bookingRepository.findWaitingStartedBefore(now, PageRequest.of(0, 2));
+        BookingKey last = first.getLast();
+        List<BookingKey> following = bookingRepository.findWaitingStartedBeforeFollowing(now, last.getStart(),
+                last.getId(), PageRequest.of(0, 2));
+
+        assertThat(first.stream().map(BookingKey::getId).toList(), contains(oldest, sameStartFirst));
+        assertThat(following.stream().map(BookingKey::getId).toList(), contains(sameStartSecond));
+    }
+
+    private Item saveItem(User owner) {
+        Item item = new Item();
+        item.setName("лодка");
+        item.setDescription("надувная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private Long saveBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(2));
+        booking.setStatus(status);
+        return bookingRepository.save(booking).getId();
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
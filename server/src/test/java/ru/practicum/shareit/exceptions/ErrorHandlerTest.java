@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exceptions;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ErrorHandlerTest {
@@ -19,6 +20,18 @@ class ErrorHandlerTest {
         assertThat(res.getError()).isEqualTo("conflict msg");
     }
 
+    @Test
+    void conflictHandle_returnsErrorResponseWithMessage() {
+        ErrorResponse res = handler.conflictHandle(new ConflictException("overlap msg"));
+        assertThat(res.getError()).isEqualTo("overlap msg");
+    }
+
+    @Test
+    void optimisticLockHandle_returnsErrorResponse() {
+        ErrorResponse res = handler.optimisticLockHandle(new OptimisticLockingFailureException("stale"));
+        assertThat(res.getError()).isEqualTo("The data was changed concurrently, please retry.");
+    }
+
     @Test
     void badRequestHandle_returnsErrorResponseWithMessage() {
         ErrorResponse res = handler.badRequestHandle(new BadRequestException("bad msg"));
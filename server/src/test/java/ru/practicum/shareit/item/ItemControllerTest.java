@@ -10,6 +10,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -117,7 +119,8 @@ class ItemControllerTest {
         ItemDto i2 = new ItemDto();
         i2.setId(11L); i2.setName("Очень большая отвертка"); i2.setAvailable(true);
 
-        when(itemService.searchItems(eq("отв"), eq(5L))).thenReturn(List.of(i1, i2));
+        when(itemService.searchItems(eq("отв"), eq(5L), isNull(), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(i1, i2), null));
 
         mvc.perform(get("/items/search")
                         .param("text", "отв")
@@ -128,7 +131,72 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].id").value(10))
                 .andExpect(jsonPath("$[0].name").value("Отвертка"))
                 .andExpect(jsonPath("$[1].id").value(11))
-                .andExpect(jsonPath("$[1].name").value("Очень большая отвертка"));
+                .andExpect(jsonPath("$[1].name").value("Очень большая отвертка"))
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void searchItems_withCursor_returnsNextCursorHeader() throws Exception {
+        ItemDto i1 = new ItemDto();
+        i1.setId(12L); i1.setName("Отвертка"); i1.setAvailable(true);
+
+        when(itemService.searchItems(eq("отв"), eq(5L), eq("MTE"), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(i1), "MTI"));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "отв")
+                        .param("cursor", "MTE")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "MTI"));
+    }
+
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames(eq("отв"), eq(5L), eq(10)))
+                .thenReturn(List.of("Отвертка", "Отвес"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "отв")
+                        .header("X-Sharer-User-Id", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("Отвертка"))
+                .andExpect(jsonPath("$[1]").value("Отвес"));
+    }
+
+    @Test
+    void getComments_returnsNextCursorHeader() throws Exception {
+        CommentDto comment = new CommentDto(3L, "Отличная вещь!", "Dmitry", LocalDateTime.now());
+
+        when(itemService.getComments(eq(7L), eq(5L), isNull(), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(comment), "MTI"));
+
+        mvc.perform(get("/items/7/comments")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].authorName").value("Dmitry"))
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "MTI"));
+    }
+
+    @Test
+    void getAvailability_parsesIsoPeriod() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 10, 0);
+        when(itemService.getAvailability(7L, 5L, from, to))
+                .thenReturn(List.of(new TimeSlotDto(from.plusHours(3).plusSeconds(15), to)));
+
+        mvc.perform(get("/items/7/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00")
+                        .header("X-Sharer-User-Id", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T13:00:15"));
     }
 
     @Test
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingWriteExecutor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemNameVocabulary;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchMode;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserIdentityCache;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full-text search runs on PostgreSQL only, so its paging is checked against a mocked repository.
+ */
+class ItemFullTextPagingTest {
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemServiceImpl itemService = new ItemServiceImpl(itemRepository, mock(UserRepository.class),
+            mock(UserIdentityCache.class), mock(BookingRepository.class), mock(BookingWriteExecutor.class),
+            mock(CommentRepository.class), mock(ItemRequestRepository.class), mock(ItemSearchIndex.class),
+            new ItemSearchCache(100, Duration.ofMinutes(1), ItemSearchMode.FULL_TEXT, new SimpleMeterRegistry()),
+            mock(ItemNameTrie.class), mock(ItemNameVocabulary.class));
+
+    @Test
+    void searchItems_exactlyFullLastPage_hasNoNextCursor() {
+        useFullText();
+        List<ItemSearchHit> hits = hits(1, 2);
+        when(itemRepository.fullTextSearch(eq("дрель"), anyFloat(), anyLong(), eq(3))).thenReturn(hits);
+
+        CursorPage<ItemDto> page = itemService.searchItems("дрель", 1L, null, 2);
+
+        assertThat(page.getItems().stream().map(ItemDto::getId).toList(), contains(1L, 2L));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchItems_pageWithMoreHits_returnsPageAndNextCursor() {
+        useFullText();
+        List<ItemSearchHit> hits = hits(1, 3);
+        when(itemRepository.fullTextSearch(eq("пила"), anyFloat(), anyLong(), eq(3))).thenReturn(hits);
+
+        CursorPage<ItemDto> page = itemService.searchItems("пила", 1L, null, 2);
+
+        assertThat(page.getItems().stream().map(ItemDto::getId).toList(), contains(1L, 2L));
+        assertThat(page.getNextCursor(), notNullValue());
+    }
+
+    private void useFullText() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+        itemService.setDatasourceUrl("jdbc:postgresql://localhost:5432/shareit");
+    }
+
+    private static List<ItemSearchHit> hits(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId).mapToObj(ItemFullTextPagingTest::hit).toList();
+    }
+
+    private static ItemSearchHit hit(long id) {
+        ItemSearchHit hit = mock(ItemSearchHit.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getName()).thenReturn("дрель " + id);
+        when(hit.getDescription()).thenReturn("ударная");
+        when(hit.getAvailable()).thenReturn(true);
+        when(hit.getScore()).thenReturn(1.0f / id);
+        return hit;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "shareit.search.mode=fuzzy")
+@ActiveProfiles("test")
+@Transactional
+class ItemFuzzySearchTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void searchItems_fuzzyMode_findsMisspelledName() {
+        User user = new User();
+        user.setEmail("fuzzy@ya.ru");
+        user.setName("Иван");
+        user = userRepository.save(user);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Болгарка Makita");
+        itemDto.setDescription("диск 125 мм");
+        itemDto.setAvailable(true);
+        itemService.create(itemDto, user.getId());
+
+        List<ItemDto> items = itemService.searchItems("балгарка", user.getId(), null, 20).getItems();
+        assertThat(items, hasSize(1));
+        assertThat(items.getFirst().getName(), equalTo("Болгарка Makita"));
+        assertThat(itemService.searchItems("балгарко", user.getId(), null, 20).getItems(), hasSize(1));
+        assertThat(itemService.searchItems("бал", user.getId(), null, 20).getItems(), empty());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "shareit.search.mode=full-text")
+@ActiveProfiles("test")
+@Transactional
+class ItemSearchFallbackTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void searchItems_fullTextModeOnH2_fallsBackToLike() {
+        User user = new User();
+        user.setEmail("fts@ya.ru");
+        user.setName("Иван");
+        user = userRepository.save(user);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("лобзик");
+        itemDto.setDescription("хорошо пилит фанеру");
+        itemDto.setAvailable(true);
+        itemService.create(itemDto, user.getId());
+
+        List<ItemDto> items = itemService.searchItems("ЛОБЗ", user.getId(), null, 20).getItems();
+        assertThat(items, hasSize(1));
+        assertThat(items.getFirst().getName(), equalTo("лобзик"));
+    }
+
+    @Test
+    void searchItems_likeOnExactlyFullLastPage_hasNoNextCursor() {
+        User user = new User();
+        user.setEmail("fts-page@ya.ru");
+        user.setName("Пётр");
+        user = userRepository.save(user);
+        for (String description : List.of("первая", "вторая")) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("стремянка");
+            itemDto.setDescription(description);
+            itemDto.setAvailable(true);
+            itemService.create(itemDto, user.getId());
+        }
+
+        CursorPage<ItemDto> page = itemService.searchItems("стремянка", user.getId(), null, 2);
+        assertThat(page.getItems(), hasSize(2));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+}
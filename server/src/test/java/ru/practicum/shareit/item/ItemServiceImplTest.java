@@ -1,5 +1,8 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,11 +16,15 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -42,6 +49,12 @@ class ItemServiceImplTest {
     @Autowired
     BookingRepository bookingRepository;
 
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     void testCreateUpdateGetItem() {
         User user = makeUser("qwe@ya.ru", "Иван Иванович");
@@ -83,7 +96,7 @@ class ItemServiceImplTest {
         ItemDto itemDto2 = makeItemDto("лобзик", "хорошо пилит фанеру", true);
         itemService.create(itemDto1, user.getId());
         itemService.create(itemDto2, user.getId());
-        List<ItemDto> items = itemService.searchItems("лобз", user.getId());
+        List<ItemDto> items = itemService.searchItems("лобз", user.getId(), null, 20).getItems();
         assertThat(items.getFirst().getName(), equalTo(itemDto2.getName()));
     }
 
@@ -257,6 +270,180 @@ class ItemServiceImplTest {
         assertThat(dtoForOther.getNextBooking(), nullValue());
     }
 
+    @Test
+    void getItem_loadsBookingsAndCommentsInTwoStatements() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(makeUser("round@x", "Owner"));
+        User booker = userRepository.save(makeUser("round-booker@x", "Booker"));
+
+        Item item = new Item();
+        item.setName("палатка");
+        item.setDescription("четырёхместная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        makeBooking(item, booker, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking last = makeBooking(item, booker, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        makeBooking(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.REJECTED);
+        Booking next = makeBooking(item, booker, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        makeBooking(item, booker, now.plusDays(7), now.plusDays(8), BookingStatus.APPROVED);
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setText("отзыв " + i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now.minusDays(3 - i));
+            commentRepository.save(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ItemWithBookingDto dto = itemService.getItem(item.getId(), owner.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        assertThat(dto.getName(), equalTo("палатка"));
+        assertThat(dto.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(dto.getLastBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(dto.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(dto.getNextBooking().getStart(), notNullValue());
+        assertThat(dto.getComments().stream().map(CommentDto::getText).toList(),
+                contains("отзыв 2", "отзыв 1", "отзыв 0"));
+        assertThat(dto.getComments().getFirst().getAuthorName(), equalTo("Booker"));
+        assertThat(dto.getCommentCount(), equalTo(3L));
+    }
+
+    @Test
+    void getItems_returnsLastAndNextBookingPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(makeUser("dash@x", "Owner"));
+        User booker = userRepository.save(makeUser("dash-booker@x", "Booker"));
+        List<Long> lastIds = new ArrayList<>();
+        List<Long> nextIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Item item = new Item();
+            item.setName("вещь " + i);
+            item.setDescription("описание");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item = itemRepository.save(item);
+            for (int day = 30; day > 1; day -= 3) {
+                makeBooking(item, booker, now.minusDays(day), now.minusDays(day - 1), BookingStatus.APPROVED);
+            }
+            lastIds.add(makeBooking(item, booker, now.minusHours(2), now.plusHours(2), BookingStatus.APPROVED).getId());
+            makeBooking(item, booker, now.plusHours(1), now.plusHours(3), BookingStatus.WAITING);
+            nextIds.add(makeBooking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED).getId());
+            makeBooking(item, booker, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+        }
+        Item idle = new Item();
+        idle.setName("без бронирований");
+        idle.setDescription("описание");
+        idle.setAvailable(true);
+        idle.setOwner(owner);
+        itemRepository.save(idle);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemWithBookingDto> items = itemService.getItems(owner.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+        assertThat(items, hasSize(3));
+        assertThat(items.stream().limit(2).map(item -> item.getLastBooking().getId()).toList(), equalTo(lastIds));
+        assertThat(items.stream().limit(2).map(item -> item.getNextBooking().getId()).toList(), equalTo(nextIds));
+        assertThat(items.getLast().getLastBooking().getId(), nullValue());
+        assertThat(items.getLast().getNextBooking().getId(), nullValue());
+    }
+
+    @Test
+    void getItems_embedsLatestCommentsAndCount() {
+        User owner = userRepository.save(makeUser("latest@x", "Owner"));
+        User author = userRepository.save(makeUser("latest-author@x", "Author"));
+        Item popular = makeItem("популярная", owner);
+        Item quiet = makeItem("тихая", owner);
+        LocalDateTime created = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 15; i++) {
+            makeComment(popular, author, "отзыв " + i, created.plusDays(i));
+        }
+        makeComment(quiet, author, "единственный", created);
+
+        List<ItemWithBookingDto> items = itemService.getItems(owner.getId());
+
+        assertThat(items.getFirst().getCommentCount(), equalTo(15L));
+        assertThat(items.getFirst().getComments(), hasSize(10));
+        assertThat(items.getFirst().getComments().getFirst().getText(), equalTo("отзыв 14"));
+        assertThat(items.getFirst().getComments().getFirst().getAuthorName(), equalTo("Author"));
+        assertThat(items.getLast().getCommentCount(), equalTo(1L));
+        assertThat(items.getLast().getComments().getFirst().getText(), equalTo("единственный"));
+    }
+
+    @Test
+    void getItems_commentsTiedOnTheCutoff_areTrimmedToTheLimit() {
+        User owner = userRepository.save(makeUser("tied@x", "Owner"));
+        User author = userRepository.save(makeUser("tied-author@x", "Author"));
+        Item item = makeItem("шумная", owner);
+        LocalDateTime created = LocalDateTime.now().minusDays(1).withNano(0);
+        for (int i = 0; i < 12; i++) {
+            makeComment(item, author, "отзыв " + i, created);
+        }
+
+        List<ItemWithBookingDto> items = itemService.getItems(owner.getId());
+
+        assertThat(items.getFirst().getCommentCount(), equalTo(12L));
+        assertThat(items.getFirst().getComments(), hasSize(10));
+        assertThat(items.getFirst().getComments().getFirst().getText(), equalTo("отзыв 11"));
+    }
+
+    @Test
+    void getAvailability_returnsGapsBetweenApprovedAndWaitingBookings() {
+        User owner = userRepository.save(makeUser("slots@x", "Owner"));
+        User booker = userRepository.save(makeUser("slots-booker@x", "Booker"));
+        Item item = makeItem("палатка", owner);
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        makeBooking(item, booker, from.minusDays(2), from.plusHours(2), BookingStatus.APPROVED);
+        makeBooking(item, booker, from.plusHours(5), from.plusHours(8), BookingStatus.WAITING);
+        makeBooking(item, booker, from.plusHours(6), from.plusHours(7), BookingStatus.APPROVED);
+        makeBooking(item, booker, from.plusHours(10), from.plusHours(12), BookingStatus.REJECTED);
+        makeBooking(item, booker, from.plusHours(20), from.plusDays(3), BookingStatus.APPROVED);
+
+        List<TimeSlotDto> slots = itemService.getAvailability(item.getId(), booker.getId(), from, from.plusDays(1));
+
+        assertThat(slots, contains(
+                new TimeSlotDto(from.plusHours(2), from.plusHours(5)),
+                new TimeSlotDto(from.plusHours(8), from.plusHours(20))));
+        assertThat(itemService.getAvailability(item.getId(), booker.getId(), from.plusDays(5), from.plusDays(6)),
+                contains(new TimeSlotDto(from.plusDays(5), from.plusDays(6))));
+        assertThrows(BadRequestException.class,
+                () -> itemService.getAvailability(item.getId(), booker.getId(), from, from));
+        assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(987_654L, booker.getId(), from, from.plusDays(1)));
+    }
+
+    @Test
+    void getComments_pagesFromNewest() {
+        User owner = userRepository.save(makeUser("comments@x", "Owner"));
+        User author = userRepository.save(makeUser("comments-author@x", "Author"));
+        Item item = makeItem("книга", owner);
+        LocalDateTime created = LocalDateTime.now().minusDays(1).withNano(0);
+        makeComment(item, author, "первый", created);
+        makeComment(item, author, "второй", created);
+        makeComment(item, author, "третий", created.plusHours(1));
+
+        CursorPage<CommentDto> page = itemService.getComments(item.getId(), author.getId(), null, 2);
+        assertThat(page.getItems().stream().map(CommentDto::getText).toList(), contains("третий", "второй"));
+        assertThat(page.getNextCursor(), notNullValue());
+
+        CursorPage<CommentDto> next = itemService.getComments(item.getId(), author.getId(), page.getNextCursor(), 2);
+        assertThat(next.getItems().stream().map(CommentDto::getText).toList(), contains("первый"));
+        assertThat(next.getNextCursor(), nullValue());
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(987_654L, author.getId(), null, 2));
+        assertThrows(BadRequestException.class, () -> itemService.getComments(item.getId(), author.getId(), null, 0));
+    }
+
     @Test
     void searchItems_returnsOnlyAvailable() {
         User owner = userRepository.save(makeUser("ava@x", "Owner"));
@@ -275,11 +462,66 @@ class ItemServiceImplTest {
         i2.setOwner(owner);
         itemRepository.save(i2);
 
-        List<ItemDto> res = itemService.searchItems("дрель", owner.getId());
+        List<ItemDto> res = itemService.searchItems("дрель", owner.getId(), null, 20).getItems();
         assertThat(res, not(empty()));
         assertThat(res.stream().allMatch(ItemDto::getAvailable), equalTo(true));
     }
 
+    @Test
+    void searchItems_pagesWithCursor() {
+        User owner = userRepository.save(makeUser("page@x", "Owner"));
+        ItemDto first = itemService.create(makeItemDto("дрель", "первая", true), owner.getId());
+        ItemDto second = itemService.create(makeItemDto("дрель", "вторая", true), owner.getId());
+        ItemDto third = itemService.create(makeItemDto("дрель", "третья", true), owner.getId());
+
+        CursorPage<ItemDto> page = itemService.searchItems("дрель", owner.getId(), null, 2);
+        assertThat(page.getItems().stream().map(ItemDto::getId).toList(),
+                contains(first.getId(), second.getId()));
+        assertThat(page.getNextCursor(), notNullValue());
+
+        CursorPage<ItemDto> next = itemService.searchItems("дрель", owner.getId(), page.getNextCursor(), 2);
+        assertThat(next.getItems().stream().map(ItemDto::getId).toList(), contains(third.getId()));
+        assertThat(next.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchItems_exactlyFullLastPage_hasNoNextCursor() {
+        User owner = userRepository.save(makeUser("full-page@x", "Owner"));
+        ItemDto first = itemService.create(makeItemDto("перфоратор", "первый", true), owner.getId());
+        ItemDto second = itemService.create(makeItemDto("перфоратор", "второй", true), owner.getId());
+
+        CursorPage<ItemDto> page = itemService.searchItems("перфоратор", owner.getId(), null, 2);
+
+        assertThat(page.getItems().stream().map(ItemDto::getId).toList(),
+                contains(first.getId(), second.getId()));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchItems_invalidPaging_shouldThrow() {
+        User u = userRepository.save(makeUser("bad@x", "U"));
+        assertThrows(BadRequestException.class, () -> itemService.searchItems("дрель", u.getId(), null, 0));
+        assertThrows(BadRequestException.class, () -> itemService.searchItems("дрель", u.getId(), "???", 10));
+    }
+
+    @Test
+    void suggestItemNames_followsCreateAndUpdate() {
+        User owner = userRepository.save(makeUser("suggest@x", "Owner"));
+        itemService.create(makeItemDto("Шуруповёрт Makita", "аккумуляторный", true), owner.getId());
+        ItemDto other = itemService.create(makeItemDto("Шуруповёрт Bosch", "сетевой", true), owner.getId());
+        itemService.create(makeItemDto("Шуруповёрт Интерскол", "сломан", false), owner.getId());
+
+        assertThat(itemService.suggestItemNames("шуруп", owner.getId(), 10),
+                contains("Шуруповёрт Bosch", "Шуруповёрт Makita"));
+
+        ItemDto unavailable = new ItemDto();
+        unavailable.setAvailable(false);
+        itemService.update(unavailable, other.getId(), owner.getId());
+
+        assertThat(itemService.suggestItemNames("ШУРУПОВЁРТ ", owner.getId(), 10), contains("Шуруповёрт Makita"));
+        assertThrows(BadRequestException.class, () -> itemService.suggestItemNames("шуруп", owner.getId(), 0));
+    }
+
     @Test
     void create_userNotFound_shouldThrow() {
         ItemDto dto = new ItemDto();
@@ -321,7 +563,7 @@ class ItemServiceImplTest {
     @Test
     void searchItems_blankText_returnsEmptyList() {
         User u = userRepository.save(makeUser("s@x","S"));
-        assertTrue(itemService.searchItems("   ", u.getId()).isEmpty());
+        assertTrue(itemService.searchItems("   ", u.getId(), null, 20).getItems().isEmpty());
     }
 
     @Test
@@ -337,6 +579,35 @@ class ItemServiceImplTest {
         return itemDto;
     }
 
+    private Item makeItem(String name, User owner) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private void makeComment(Item item, User author, String text, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setText(text);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(created);
+        commentRepository.save(comment);
+    }
+
+    private Booking makeBooking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
     private User makeUser(String email, String name) {
         User user = new User();
         user.setEmail(email);
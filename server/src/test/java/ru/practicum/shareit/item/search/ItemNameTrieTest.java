@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemNameTrieTest {
+
+    private ItemNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ItemNameTrie();
+        add(1L, "Дрель", true);
+        add(2L, "Дрель", true);
+        add(3L, "Дрель ударная", true);
+        add(4L, "Домкрат", true);
+        add(5L, "Дрезина", false);
+    }
+
+    @Test
+    void suggest_ranksByItemCountThenName() {
+        assertThat(trie.suggest("д", 10), contains("Дрель", "Домкрат", "Дрель ударная"));
+        assertThat(trie.suggest("ДР", 10), contains("Дрель", "Дрель ударная"));
+        assertThat(trie.suggest("д", 1), contains("Дрель"));
+    }
+
+    @Test
+    void suggest_prefixEndingInsideEdge() {
+        assertThat(trie.suggest("дрель у", 10), contains("Дрель ударная"));
+        assertThat(trie.suggest("дом", 10), contains("Домкрат"));
+        assertThat(trie.suggest("дрельx", 10), empty());
+        assertThat(trie.suggest("к", 10), empty());
+    }
+
+    @Test
+    void onItemChanged_followsRenameAndAvailability() {
+        trie.onItemChanged(new ItemChangedEvent(new IndexedItem(4L, "Домкрат", "", true),
+                new IndexedItem(4L, "Домкрат", "", false)));
+        trie.onItemChanged(new ItemChangedEvent(new IndexedItem(3L, "Дрель ударная", "", true),
+                new IndexedItem(3L, "Дрезина", "", true)));
+        trie.onItemChanged(new ItemChangedEvent(new IndexedItem(2L, "Дрель", "", true), null));
+
+        assertThat(trie.suggest("д", 10), contains("Дрезина", "Дрель"));
+        assertThat(trie.suggest("дрель у", 10), empty());
+        assertThat(trie.suggest("дом", 10), empty());
+    }
+
+    @Test
+    void onItemChanged_removingEveryNameLeavesEmptyTrie() {
+        remove(1L, "Дрель");
+        remove(2L, "Дрель");
+        remove(3L, "Дрель ударная");
+        remove(4L, "Домкрат");
+
+        assertThat(trie.suggest("д", 10), empty());
+
+        add(6L, "Дрель", true);
+        assertThat(trie.suggest("д", 10), contains("Дрель"));
+    }
+
+    private void add(long id, String name, boolean available) {
+        trie.onItemChanged(new ItemChangedEvent(null, new IndexedItem(id, name, "", available)));
+    }
+
+    private void remove(long id, String name) {
+        trie.onItemChanged(new ItemChangedEvent(new IndexedItem(id, name, "", true), null));
+    }
+}
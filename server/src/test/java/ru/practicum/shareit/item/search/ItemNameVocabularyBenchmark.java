@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the BK-tree lookup of {@link ItemNameVocabulary} with comparing the query against every word
+ * of the vocabulary. Words are built from Russian syllables, so that many of them are a few edits apart
+ * like real item names. Run with {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemNameVocabularyBenchmark {
+
+    private static final String[] SYLLABLES = {"дре", "ль", "пи", "ла", "пер", "фо", "ра", "тор", "бол", "гар",
+            "ка", "ше", "ру", "по", "вёрт", "лоб", "зик", "мо", "ток", "ки", "ян", "ва", "ли", "ос", "ти"};
+
+    @Param({"10000", "100000"})
+    public int words;
+
+    private ItemNameVocabulary vocabulary;
+    private List<String> vocabularyWords;
+    private List<String> queries;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemNameVocabularyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new ItemNameVocabulary();
+        vocabularyWords = new ArrayList<>();
+        for (long id = 1; vocabularyWords.size() < words; id++) {
+            String word = randomWord(random);
+            vocabulary.onItemChanged(new ItemChangedEvent(null, new IndexedItem(id, word, "", true)));
+            vocabularyWords.add(word);
+        }
+        queries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            queries.add(misspell(vocabularyWords.get(random.nextInt(vocabularyWords.size())), random));
+        }
+    }
+
+    @Benchmark
+    public int bkTree() {
+        return vocabulary.search(nextQuery(), 0, 20).size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String query = nextQuery();
+        int radius = ItemNameVocabulary.maxDistance(query);
+        int found = 0;
+        for (String word : vocabularyWords) {
+            if (ItemNameVocabulary.editDistance(query, word) <= radius) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % queries.size();
+        return queries.get(next);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String misspell(String word, Random random) {
+        StringBuilder misspelled = new StringBuilder(word);
+        misspelled.setCharAt(random.nextInt(word.length()), 'а');
+        return misspelled.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemNameVocabularyTest {
+
+    private ItemNameVocabulary vocabulary;
+
+    @BeforeEach
+    void setUp() {
+        vocabulary = new ItemNameVocabulary();
+        add(1L, "Дрель ударная", true);
+        add(2L, "Перфоратор Bosch", true);
+        add(3L, "Дрель", false);
+        add(4L, "Пила", true);
+    }
+
+    @Test
+    void search_toleratesTyposByWordLength() {
+        assertThat(vocabulary.search("дрел", 0, 10), equalTo(List.of(1L)));
+        assertThat(vocabulary.search("ПЕРФАРАТОР", 0, 10), equalTo(List.of(2L)));
+        assertThat(vocabulary.search("пирфаратар", 0, 10), empty());
+        assertThat(vocabulary.search("пол", 0, 10), empty());
+        assertThat(vocabulary.search("пила", 0, 10), equalTo(List.of(4L)));
+    }
+
+    @Test
+    void search_requiresEveryQueryWord() {
+        assertThat(vocabulary.search("дрэль ударна", 0, 10), equalTo(List.of(1L)));
+        assertThat(vocabulary.search("дрэль bosch", 0, 10), empty());
+    }
+
+    @Test
+    void search_pagesAfterId() {
+        add(5L, "Дрель аккумуляторная", true);
+        add(6L, "Дрель сетевая", true);
+
+        assertThat(vocabulary.search("дрель", 0, 2), equalTo(List.of(1L, 5L)));
+        assertThat(vocabulary.search("дрель", 5L, 2), equalTo(List.of(6L)));
+    }
+
+    @Test
+    void onItemChanged_followsRenameAndAvailability() {
+        vocabulary.onItemChanged(new ItemChangedEvent(new IndexedItem(1L, "Дрель ударная", "", true),
+                new IndexedItem(1L, "Шуруповёрт", "", true)));
+        vocabulary.onItemChanged(new ItemChangedEvent(new IndexedItem(3L, "Дрель", "", false),
+                new IndexedItem(3L, "Дрель", "", true)));
+
+        assertThat(vocabulary.search("дрел", 0, 10), equalTo(List.of(3L)));
+        assertThat(vocabulary.search("шуруповерт", 0, 10), equalTo(List.of(1L)));
+    }
+
+    @Test
+    void onItemChanged_prunesWordsNoItemUses() {
+        for (long id = 10; id < 50; id++) {
+            add(id, "Вещь" + id, true);
+        }
+        for (long id = 10; id < 50; id++) {
+            vocabulary.onItemChanged(new ItemChangedEvent(new IndexedItem(id, "Вещь" + id, "", true),
+                    new IndexedItem(id, "Палатка", "", true)));
+        }
+
+        assertThat(vocabulary.treeSize(), lessThan(20));
+        assertThat(vocabulary.search("вещь10", 0, 10), empty());
+        assertThat(vocabulary.search("палатка", 0, 2), equalTo(List.of(10L, 11L)));
+        assertThat(vocabulary.search("дрель", 0, 10), equalTo(List.of(1L)));
+    }
+
+    @Test
+    void editDistance() {
+        assertThat(ItemNameVocabulary.editDistance("дрель", "дрель"), equalTo(0));
+        assertThat(ItemNameVocabulary.editDistance("дрель", "дрел"), equalTo(1));
+        assertThat(ItemNameVocabulary.editDistance("дрель", "дрэль"), equalTo(1));
+        assertThat(ItemNameVocabulary.editDistance("", "пила"), equalTo(4));
+        assertThat(ItemNameVocabulary.editDistance("перфоратор", "перфаратар"), equalTo(2));
+    }
+
+    private void add(long id, String name, boolean available) {
+        vocabulary.onItemChanged(new ItemChangedEvent(null, new IndexedItem(id, name, "", available)));
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the LIKE scan of {@code ItemRepository.search} with the full-text query of
+ * {@code ItemRepository.fullTextSearch} on a PostgreSQL database filled with generated items.
+ * Run {@link #main} against a scratch database, e.g.
+ * {@code -Dbenchmark.url=jdbc:postgresql://localhost:5432/shareit_benchmark}; the items table is refilled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String LIKE_SQL = """
+            select i.item_id from items i
+            where i.is_available = true
+              and (upper(i.name) like upper(concat('%', ?, '%'))
+               or upper(i.description) like upper(concat('%', ?, '%')))
+            """;
+
+    private static final String FULL_TEXT_SQL = """
+            select i.item_id from items i
+            where i.is_available = true
+              and i.search_vector @@ websearch_to_tsquery('russian', ?)
+            order by ts_rank(i.search_vector, websearch_to_tsquery('russian', ?)) desc, i.item_id
+            """;
+
+    @Param({"100000", "1000000"})
+    public int items;
+
+    // "перфоратор" is in one item out of 10 000, "дрель" in one out of 100
+    @Param({"перфоратор", "дрель"})
+    public String text;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private PreparedStatement fullTextStatement;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.url", "jdbc:postgresql://localhost:5432/shareit_benchmark"),
+                System.getProperty("benchmark.user", "dbuser"),
+                System.getProperty("benchmark.password", "12345"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+        fillItems();
+        likeStatement = connection.prepareStatement(LIKE_SQL);
+        fullTextStatement = connection.prepareStatement(FULL_TEXT_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int like() throws SQLException {
+        likeStatement.setString(1, text);
+        likeStatement.setString(2, text);
+        return count(likeStatement);
+    }
+
+    @Benchmark
+    public int fullText() throws SQLException {
+        fullTextStatement.setString(1, text);
+        fullTextStatement.setString(2, text);
+        return count(fullTextStatement);
+    }
+
+    private void fillItems() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE items CASCADE");
+            statement.execute("INSERT INTO users (name, email) VALUES ('benchmark', 'benchmark@shareit.ru') " +
+                    "ON CONFLICT (email) DO NOTHING");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO items (name, description, is_available, owner_id)
+                SELECT CASE WHEN g % 10000 = 0 THEN 'перфоратор ' || g
+                            WHEN g % 100 = 0 THEN 'дрель ' || g
+                            ELSE 'вещь ' || g END,
+                       'описание ' || md5(g::text) || ' ' || md5((g + 1)::text),
+                       g % 10 <> 0,
+                       (SELECT user_id FROM users WHERE email = 'benchmark@shareit.ru')
+                FROM generate_series(1, ?) g
+                """)) {
+            insert.setInt(1, items);
+            insert.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE items");
+        }
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
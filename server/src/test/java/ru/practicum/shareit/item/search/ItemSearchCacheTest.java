@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_returnsCachedPageIgnoringCase() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+
+        CursorPage<ItemDto> first = cache.get("Дрель", null, 20, this::load);
+        CursorPage<ItemDto> second = cache.get("дРЕЛЬ", null, 20, this::load);
+        cache.get("дрель", null, 10, this::load);
+
+        assertThat(second, sameInstance(first));
+        assertThat(loads.get(), equalTo(2));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count(), equalTo(2.0));
+    }
+
+    @Test
+    void onItemChanged_dropsOnlyPagesTheItemMatches() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+        cache.get("дрель", null, 20, this::load);
+        cache.get("лобзик", null, 20, this::load);
+
+        cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(1L, "Дрель", "ударная", true)));
+        cache.get("дрель", null, 20, this::load);
+        cache.get("лобзик", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void onItemChanged_dropsPagesOfPreviousVersion() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+        cache.get("дрель", null, 20, this::load);
+
+        cache.onItemChanged(new ItemChangedEvent(new IndexedItem(1L, "Дрель", "ударная", true),
+                new IndexedItem(1L, "Дрель", "ударная", false)));
+        cache.get("дрель", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void onItemChanged_keepsPagesWhenSearchedFieldsAreUnchanged() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+        cache.get("дрель", null, 20, this::load);
+
+        IndexedItem item = new IndexedItem(1L, "Дрель", "ударная", true);
+        cache.onItemChanged(new ItemChangedEvent(item, new IndexedItem(1L, "Дрель", "ударная", true)));
+        cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(2L, "Дрель", "сломана", false)));
+        cache.get("дрель", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    void onItemChanged_dropsEveryPageInFullTextMode() {
+        ItemSearchCache cache = cache(ItemSearchMode.FULL_TEXT);
+        cache.get("лобзик", null, 20, this::load);
+
+        cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(1L, "Дрель", "ударная", true)));
+        cache.get("лобзик", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void get_doesNotKeepPageLoadedDuringInvalidation() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+
+        cache.get("дрель", null, 20, () -> {
+            cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(1L, "Дрель", "ударная", true)));
+            return load();
+        });
+        cache.get("дрель", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void get_doesNotKeepPagesOfUncommittedWrite() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(1L, "Дрель", "ударная", true)));
+            cache.get("дрель", null, 20, this::load);
+            cache.get("дрель", null, 20, this::load);
+            cache.get("лобзик", null, 20, this::load);
+            cache.get("лобзик", null, 20, this::load);
+
+            assertThat(loads.get(), equalTo(3));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.get("дрель", null, 20, this::load);
+        cache.get("дрель", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    @Test
+    void onItemChanged_dropsPagesOfShortTexts() {
+        ItemSearchCache cache = cache(ItemSearchMode.INDEX);
+        cache.get("ре", null, 20, this::load);
+        cache.get("ы", null, 20, this::load);
+
+        cache.onItemChanged(new ItemChangedEvent(null, new IndexedItem(1L, "Дрель", "ударная", true)));
+        cache.get("ре", null, 20, this::load);
+        cache.get("ы", null, 20, this::load);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    private ItemSearchCache cache(ItemSearchMode mode) {
+        return new ItemSearchCache(100, Duration.ofMinutes(1), mode, meterRegistry);
+    }
+
+    private CursorPage<ItemDto> load() {
+        loads.incrementAndGet();
+        return new CursorPage<>(List.of(), null);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.index(new IndexedItem(1L, "Дрель", "ударная, 18V", true));
+        index.index(new IndexedItem(2L, "Лобзик", "хорошо пилит фанеру", true));
+        index.index(new IndexedItem(3L, "Дрель", "сломана", false));
+        index.index(new IndexedItem(4L, "УШМ", "как новая", true));
+    }
+
+    @Test
+    void search_matchesSubstringIgnoringCase() {
+        assertThat(index.search("дРЕль"), equalTo(List.of(1L)));
+        assertThat(index.search("фанер"), equalTo(List.of(2L)));
+        assertThat(index.search("Ая, 18"), equalTo(List.of(1L)));
+    }
+
+    @Test
+    void search_shortQueries() {
+        assertThat(index.search("уш"), equalTo(List.of(4L)));
+        assertThat(index.search("м"), equalTo(List.of(4L)));
+        assertThat(index.search("л"), containsInAnyOrder(1L, 2L));
+    }
+
+    @Test
+    void search_skipsUnavailableAndUnknown() {
+        assertThat(index.search("сломана"), empty());
+        assertThat(index.search("перфоратор"), empty());
+        assertThat(index.search(""), empty());
+    }
+
+    @Test
+    void search_pagesAfterId() {
+        index.index(new IndexedItem(5L, "Дрель", "аккумуляторная", true));
+        index.index(new IndexedItem(6L, "Дрель", "сетевая", true));
+        assertThat(index.search("дрель", 0, 2), equalTo(List.of(1L, 5L)));
+        assertThat(index.search("дрель", 5L, 2), equalTo(List.of(6L)));
+        assertThat(index.search("дрель", 6L, 2), empty());
+    }
+
+    @Test
+    void search_shortQueryPagesAfterIdInIdOrder() {
+        index.index(new IndexedItem(5L, "Лопата", "штыковая", true));
+        assertThat(index.search("л", 0, 2), equalTo(List.of(1L, 2L)));
+        assertThat(index.search("л", 2L, 2), equalTo(List.of(5L)));
+        assertThat(index.search("л", 5L, 2), empty());
+    }
+
+    @Test
+    void index_replacesPreviousVersion() {
+        index.index(new IndexedItem(2L, "Пила", "по дереву", true));
+        assertThat(index.search("лобзик"), empty());
+        assertThat(index.search("пила"), equalTo(List.of(2L)));
+        assertThat(index.size(), equalTo(4));
+    }
+
+    @Test
+    void indexIfAbsent_keepsExistingVersion() {
+        index.indexIfAbsent(new IndexedItem(4L, "Болгарка", "старая", true));
+        index.indexIfAbsent(new IndexedItem(5L, "Болгарка", "новая", true));
+        assertThat(index.search("болгарка"), equalTo(List.of(5L)));
+        assertThat(index.search("ушм"), equalTo(List.of(4L)));
+    }
+
+    @Test
+    void remove_dropsItem() {
+        index.remove(1L);
+        index.remove(42L);
+        assertThat(index.search("дрель"), empty());
+        assertThat(index.size(), equalTo(3));
+    }
+}
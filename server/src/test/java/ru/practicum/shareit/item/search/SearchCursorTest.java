@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    @Test
+    void decode_missingCursor_returnsFirst() {
+        assertThat(SearchCursor.decode(null), sameInstance(SearchCursor.FIRST));
+        assertThat(SearchCursor.decode(" "), sameInstance(SearchCursor.FIRST));
+    }
+
+    @Test
+    void encodeDecode_roundTrip() {
+        SearchCursor byId = SearchCursor.decode(SearchCursor.after(42L).encode());
+        assertThat(byId.getId(), equalTo(42L));
+        assertThat(byId.getScore(), equalTo(Float.MAX_VALUE));
+
+        SearchCursor ranked = SearchCursor.decode(SearchCursor.after(0.0607927f, 7L).encode());
+        assertThat(ranked.getId(), equalTo(7L));
+        assertThat(ranked.getScore(), equalTo(0.0607927f));
+    }
+
+    @Test
+    void decode_garbage_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode("не курсор"));
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode("YWJj"));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeCursorTest {
+
+    @Test
+    void decode_missingCursor_returnsFirst() {
+        assertThat(TimeCursor.decode(null), sameInstance(TimeCursor.FIRST));
+        assertThat(TimeCursor.decode(""), sameInstance(TimeCursor.FIRST));
+        assertThat(TimeCursor.FIRST.isFirst(), equalTo(true));
+    }
+
+    @Test
+    void encodeDecode_roundTrip() {
+        LocalDateTime time = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000);
+
+        TimeCursor cursor = TimeCursor.decode(TimeCursor.after(time, 42L).encode());
+
+        assertThat(cursor.isFirst(), equalTo(false));
+        assertThat(cursor.getTime(), equalTo(time));
+        assertThat(cursor.getId(), equalTo(42L));
+    }
+
+    @Test
+    void decode_garbage_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> TimeCursor.decode("не курсор"));
+        assertThrows(BadRequestException.class, () -> TimeCursor.decode("NDI"));
+        assertThrows(BadRequestException.class, () -> TimeCursor.decode("eWVzdGVyZGF5fDQy"));
+    }
+}
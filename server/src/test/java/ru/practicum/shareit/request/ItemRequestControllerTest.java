@@ -7,7 +7,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -83,12 +86,15 @@ class ItemRequestControllerTest {
         r2.setId(11L);
         r2.setDescription("Нужен уровень");
 
-        when(itemRequestService.getAll(99L)).thenReturn(List.of(r1, r2));
+        when(itemRequestService.getAll(99L, "abc", 2)).thenReturn(new CursorPage<>(List.of(r1, r2), "def"));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", "99")
+                        .param("cursor", "abc")
+                        .param("size", "2")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "def"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(10))
                 .andExpect(jsonPath("$[0].description").value("Нужна отвертка"))
@@ -96,6 +102,20 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[1].description").value("Нужен уровень"));
     }
 
+    @Test
+    void getSuggestions() throws Exception {
+        when(itemRequestService.getSuggestions(12L, 5L))
+                .thenReturn(List.of(new ItemSuggestionDto(3L, "Дрель", "ударная дрель", 8L, 1.0)));
+
+        mvc.perform(get("/requests/{requestId}/suggestions", 5L)
+                        .header("X-Sharer-User-Id", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].ownerId").value(8))
+                .andExpect(jsonPath("$[0].score").value(1.0));
+    }
+
     @Test
     void getById() throws Exception {
         ItemRequestDto resp = new ItemRequestDto();
@@ -153,7 +173,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getAll_userNotFound_returns404() throws Exception {
-        when(itemRequestService.getAll(99L))
+        when(itemRequestService.getAll(99L, null, 20))
                 .thenThrow(new ru.practicum.shareit.exceptions.NotFoundException("user"));
 
         mvc.perform(get("/requests/all")
@@ -1,16 +1,24 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -33,6 +41,12 @@ class ItemRequestServiceImplTest {
     @Autowired
     ItemRequestService itemRequestService;
 
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     void testCreate() {
         User user = saveUser("Ivan", "dfgd@ya.ru");
@@ -73,7 +87,7 @@ class ItemRequestServiceImplTest {
                 createItemRequestDto("нужна дрель"));
         ItemRequestDto itemRequestDto3 = itemRequestService.create(user.getId(),
                 createItemRequestDto("нужна пила"));
-        List<ItemRequestDto> requestDtos = itemRequestService.getAll(user2.getId());
+        List<ItemRequestDto> requestDtos = itemRequestService.getAll(user2.getId(), null, 20).getItems();
         assertThat(requestDtos.getFirst().getDescription(), equalTo(itemRequestDto3.getDescription()));
         assertThat(requestDtos.get(1).getDescription(), equalTo(itemRequestDto1.getDescription()));
     }
@@ -108,7 +122,7 @@ class ItemRequestServiceImplTest {
     @Test
     void getAll_userNotFound_shouldThrow() {
         assertThrows(NotFoundException.class,
-                () -> itemRequestService.getAll(9999L));
+                () -> itemRequestService.getAll(9999L, null, 20));
     }
 
     @Test
@@ -144,7 +158,7 @@ class ItemRequestServiceImplTest {
         ItemRequestDto myReq1 = itemRequestService.create(me.getId(), createItemRequestDto("мой запрос 1"));
         ItemRequestDto myReq2 = itemRequestService.create(me.getId(), createItemRequestDto("мой запрос 2"));
 
-        List<ItemRequestDto> forOther = itemRequestService.getAll(other.getId());
+        List<ItemRequestDto> forOther = itemRequestService.getAll(other.getId(), null, 20).getItems();
         assertFalse(forOther.isEmpty(), "У Other должны быть видны чужие (мои) запросы");
 
         assertEquals(2, forOther.size());
@@ -153,7 +167,7 @@ class ItemRequestServiceImplTest {
 
         ItemRequestDto foreign = itemRequestService.create(other.getId(), createItemRequestDto("ищу перфоратор"));
 
-        List<ItemRequestDto> forMe = itemRequestService.getAll(me.getId());
+        List<ItemRequestDto> forMe = itemRequestService.getAll(me.getId(), null, 20).getItems();
         assertFalse(forMe.isEmpty());
         assertEquals(foreign.getId(), forMe.getFirst().getId());
         var forMeIds = forMe.stream().map(ItemRequestDto::getId).toList();
@@ -161,6 +175,96 @@ class ItemRequestServiceImplTest {
         assertFalse(forMeIds.contains(myReq2.getId()));
     }
 
+    @Test
+    void getOwn_returnsItemsAnsweringEachRequest() {
+        User requestor = saveUser("Ivan", "answers@ya.ru");
+        User owner = saveUser("Petr", "answers-owner@ya.ru");
+        ItemRequestDto grinder = itemRequestService.create(requestor.getId(), createItemRequestDto("нужна УШМ"));
+        ItemRequestDto drill = itemRequestService.create(requestor.getId(), createItemRequestDto("нужна дрель"));
+        Item answer = saveItem("УШМ Makita", owner, grinder.getId());
+
+        List<ItemRequestDto> own = itemRequestService.getOwn(requestor.getId());
+
+        assertEquals(List.of(drill.getId(), grinder.getId()), own.stream().map(ItemRequestDto::getId).toList());
+        assertTrue(own.getFirst().getItems().isEmpty());
+        assertEquals(List.of(new ItemShortDto(answer.getId(), "УШМ Makita", owner.getId())),
+                own.get(1).getItems());
+    }
+
+    @Test
+    void getAll_loadsAnswersOfAllRequestsWithOneQuery() {
+        User requestor = saveUser("Ivan", "all-answers@ya.ru");
+        User reader = saveUser("Petr", "all-answers-reader@ya.ru");
+        for (int i = 0; i < 5; i++) {
+            User owner = saveUser("Owner " + i, "all-answers-owner" + i + "@ya.ru");
+            ItemRequestDto request = itemRequestService.create(requestor.getId(), createItemRequestDto("запрос " + i));
+            saveItem("ответ " + i, owner, request.getId());
+            saveItem("ещё ответ " + i, reader, request.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemRequestDto> all = itemRequestService.getAll(reader.getId(), null, 20).getItems();
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+        assertEquals(5, all.size());
+        all.forEach(request -> assertEquals(2, request.getItems().size()));
+        assertEquals(reader.getId(), all.getFirst().getItems().get(1).getOwnerId());
+    }
+
+    @Test
+    void getAll_pagesThroughOtherUsersRequestsNewestFirst() {
+        User requestor = saveUser("Ivan", "feed@ya.ru");
+        User reader = saveUser("Petr", "feed-reader@ya.ru");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.addFirst(itemRequestService.create(requestor.getId(), createItemRequestDto("запрос " + i)).getId());
+        }
+        itemRequestService.create(reader.getId(), createItemRequestDto("свой запрос"));
+
+        CursorPage<ItemRequestDto> first = itemRequestService.getAll(reader.getId(), null, 2);
+        CursorPage<ItemRequestDto> second = itemRequestService.getAll(reader.getId(), first.getNextCursor(), 2);
+        CursorPage<ItemRequestDto> third = itemRequestService.getAll(reader.getId(), second.getNextCursor(), 2);
+
+        List<Long> read = new ArrayList<>();
+        List.of(first, second, third).forEach(page -> page.getItems().forEach(request -> read.add(request.getId())));
+        assertEquals(ids, read);
+        assertNull(third.getNextCursor());
+    }
+
+    @Test
+    void getAll_lastFullPage_hasNoNextCursor() {
+        User requestor = saveUser("Ivan", "feed-full@ya.ru");
+        User reader = saveUser("Petr", "feed-full-reader@ya.ru");
+        for (int i = 0; i < 2; i++) {
+            itemRequestService.create(requestor.getId(), createItemRequestDto("запрос " + i));
+        }
+
+        CursorPage<ItemRequestDto> page = itemRequestService.getAll(reader.getId(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAll_invalidPageSize_shouldThrow() {
+        User user = saveUser("Ivan", "feed-size@ya.ru");
+        assertThrows(BadRequestException.class, () -> itemRequestService.getAll(user.getId(), null, 0));
+        assertThrows(BadRequestException.class, () -> itemRequestService.getAll(user.getId(), "не курсор", 20));
+    }
+
+    private Item saveItem(String name, User owner, Long requestId) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(itemRequestRepository.getReferenceById(requestId));
+        return itemRepository.save(item);
+    }
+
 
     private User createUser(long id, String name, String email) {
         User u = new User();
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs against committed data, as requests and items are matched after their transactions commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestMatcherTest {
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User requestor;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("Owner", "matcher-owner@ya.ru");
+        requestor = saveUser("Requestor", "matcher-requestor@ya.ru");
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll(itemRepository.findAllByOwnerIdOrderById(owner.getId()));
+        itemRepository.deleteAll(itemRepository.findAllByOwnerIdOrderById(requestor.getId()));
+        // requests and their suggestions go with the requestor
+        userRepository.delete(requestor);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void newRequest_isMatchedAgainstExistingItems() throws Exception {
+        ItemDto tent = itemService.create(item("Палатка трёхместная", "лёгкая туристическая палатка"), owner.getId());
+        itemService.create(item("Спальник", "тёплый спальный мешок"), owner.getId());
+        // scores as well as the tent, but is the requestor's own
+        itemService.create(item("Туристическая палатка", "своя"), requestor.getId());
+
+        ItemRequestDto request = itemRequestService.create(requestor.getId(),
+                request("Ищу туристическую палатку на выходные"));
+
+        List<ItemSuggestionDto> suggestions = awaitSuggestions(request.getId());
+        assertThat(suggestions, hasSize(1));
+        assertThat(suggestions.getFirst().getId(), equalTo(tent.getId()));
+        assertThat(suggestions.getFirst().getOwnerId(), equalTo(owner.getId()));
+    }
+
+    @Test
+    void newItem_isMatchedAgainstOpenRequests() throws Exception {
+        ItemRequestDto request = itemRequestService.create(requestor.getId(), request("Нужна дрель"));
+        ItemRequestDto other = itemRequestService.create(requestor.getId(), request("Нужен велосипед"));
+
+        ItemDto drill = itemService.create(item("Дрель Bosch", "ударная дрель с набором свёрл"), owner.getId());
+
+        List<ItemSuggestionDto> suggestions = awaitSuggestions(request.getId());
+        assertThat(suggestions.stream().map(ItemSuggestionDto::getId).toList(), contains(drill.getId()));
+        assertThat(suggestions.getFirst().getScore(), equalTo(1.0));
+        assertThat(itemRequestService.getSuggestions(requestor.getId(), other.getId()), empty());
+    }
+
+    @Test
+    void newRequest_isNotMatchedAgainstRolledBackItems() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.create(item("Перфоратор", "сломанный"), owner.getId());
+            status.setRollbackOnly();
+        });
+        ItemDto drill = itemService.create(item("Перфоратор Makita", "с набором буров"), owner.getId());
+
+        ItemRequestDto request = itemRequestService.create(requestor.getId(), request("Нужен перфоратор"));
+
+        List<ItemSuggestionDto> suggestions = awaitSuggestions(request.getId());
+        assertThat(suggestions.stream().map(ItemSuggestionDto::getId).toList(), contains(drill.getId()));
+    }
+
+    @Test
+    void stems_dropFillerWordsAndWordEndings() {
+        assertThat(RequestMatcher.stems("Ищу палатку на выходные"), equalTo(Set.of("палатк", "выходн")));
+        assertThat(RequestMatcher.stems("палатка"), equalTo(RequestMatcher.stems("Палатку")));
+    }
+
+    private List<ItemSuggestionDto> awaitSuggestions(long requestId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            List<ItemSuggestionDto> suggestions = itemRequestService.getSuggestions(requestor.getId(), requestId);
+            if (!suggestions.isEmpty()) {
+                return suggestions;
+            }
+            Thread.sleep(50);
+        }
+        return List.of();
+    }
+
+    private ItemDto item(String name, String description) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+
+    private ItemRequestDto request(String description) {
+        ItemRequestDto request = new ItemRequestDto();
+        request.setDescription(description);
+        return request;
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
@@ -7,19 +7,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exceptions.DuplicatedDataException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -34,6 +41,9 @@ class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    UserExporter userExporter;
+
     @Test
     void create() throws Exception {
         NewUserRequest newUser = new NewUserRequest();
@@ -91,11 +101,14 @@ class UserControllerTest {
         u2.setName("B");
         u2.setEmail("b@ya.ru");
 
-        when(userService.findAll()).thenReturn(List.of(u1, u2));
+        when(userService.findAll("MQ", 2)).thenReturn(new CursorPage<>(List.of(u1, u2), "Mg"));
 
         mvc.perform(get("/users")
+                        .param("cursor", "MQ")
+                        .param("size", "2")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "Mg"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("A"))
@@ -191,10 +204,30 @@ class UserControllerTest {
 
     @Test
     void findAll_empty_returnsEmptyArray() throws Exception {
-        when(userService.findAll()).thenReturn(List.of());
+        when(userService.findAll(null, 20)).thenReturn(CursorPage.empty());
         mvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void export_streamsUsersAsJsonLines() throws Exception {
+        String lines = "{\"id\":1,\"email\":\"a@ya.ru\",\"name\":\"A\"}\n";
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(lines.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExporter).export(any(OutputStream.class));
+
+        MvcResult result = mvc.perform(get("/users/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(lines));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UpdateUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UserIdentityCacheTest {
+
+    @Autowired
+    UserIdentityCache userIdentityCache;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void get_readsTheUserOnceWithoutLoadingTheEntity() {
+        UserDto user = userService.create(createNewUser("identity@ya.ru", "Иван"));
+        Statistics statistics = clearStatistics();
+
+        userIdentityCache.get(user.getId(), "Unable to get user.");
+        UserIdentity identity = userIdentityCache.get(user.getId(), "Unable to get user.");
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+        assertThat(identity.getName(), equalTo("Иван"));
+        assertThat(identity.getEmail(), equalTo("identity@ya.ru"));
+    }
+
+    @Test
+    void createItem_knownUser_writesWithoutReadingTheUser() {
+        UserDto user = userService.create(createNewUser("identity-owner@ya.ru", "Owner"));
+        userIdentityCache.get(user.getId(), "Unable to get user.");
+        Statistics statistics = clearStatistics();
+
+        ItemDto item = new ItemDto();
+        item.setName("палатка");
+        item.setDescription("трёхместная");
+        item.setAvailable(true);
+        itemService.create(item, user.getId());
+        entityManager.flush();
+
+        assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+        assertThat(statistics.getEntityInsertCount(), equalTo(1L));
+    }
+
+    @Test
+    void updateAndDelete_dropTheCachedUser() {
+        UserDto user = userService.create(createNewUser("identity-renamed@ya.ru", "Иван"));
+        userIdentityCache.get(user.getId(), "Unable to get user.");
+
+        UpdateUserRequest rename = new UpdateUserRequest();
+        rename.setName("Петр");
+        userService.update(rename, user.getId());
+        assertThat(userIdentityCache.get(user.getId(), "Unable to get user.").getName(), equalTo("Петр"));
+
+        userService.deleteUser(user.getId());
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> userIdentityCache.get(user.getId(), "Unable to get user."));
+        assertEquals("User not found.", exception.getMessage());
+    }
+
+    private Statistics clearStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private NewUserRequest createNewUser(String email, String name) {
+        NewUserRequest newUserRequest = new NewUserRequest();
+        newUserRequest.setEmail(email);
+        newUserRequest.setName(name);
+        return newUserRequest;
+    }
+}
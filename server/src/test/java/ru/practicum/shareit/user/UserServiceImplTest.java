@@ -1,21 +1,39 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ApprovedBookingIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.IdCursor;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.exceptions.DuplicatedDataException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -26,6 +44,24 @@ class UserServiceImplTest {
     @Autowired
     UserService userService;
 
+    @Autowired
+    UserExporter userExporter;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ApprovedBookingIndex approvedBookingIndex;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     void testCreateUpdateGetUser() {
         NewUserRequest newUserRequest = createNewUser("qwe@ya.ru", "Иван Иванович");
@@ -50,12 +86,12 @@ class UserServiceImplTest {
         NewUserRequest newUserRequest2 = createNewUser("asd@ya.ru", "Петр Петрович");
         UserDto createdUser1 = userService.create(newUserRequest1);
         userService.create(newUserRequest2);
-        List<UserDto> users = userService.findAll();
+        List<UserDto> users = userService.findAll(null, 100).getItems();
         assertThat(users.getFirst().getName(), equalTo(newUserRequest1.getName()));
         assertThat(users.getLast().getEmail(), equalTo(newUserRequest2.getEmail()));
 
         userService.deleteUser(createdUser1.getId());
-        List<UserDto> users2 = userService.findAll();
+        List<UserDto> users2 = userService.findAll(null, 100).getItems();
         assertThat(users2.getFirst().getName(), equalTo(newUserRequest2.getName()));
 
     }
@@ -98,10 +134,86 @@ class UserServiceImplTest {
 
     @Test
     void findAll_whenNoUsers_returnsEmptyList() {
-        List<UserDto> users = userService.findAll();
+        List<UserDto> users = userService.findAll(null, 20).getItems();
         assertThat(users, notNullValue());
     }
 
+    @Test
+    void findAll_pagesThroughUsersInIdOrder() {
+        UserDto first = userService.create(createNewUser("page1@ya.ru", "Первый"));
+        UserDto second = userService.create(createNewUser("page2@ya.ru", "Второй"));
+        UserDto third = userService.create(createNewUser("page3@ya.ru", "Третий"));
+        String beforeFirst = IdCursor.after(first.getId() - 1).encode();
+
+        CursorPage<UserDto> page = userService.findAll(beforeFirst, 2);
+        assertThat(page.getItems().stream().map(UserDto::getId).toList(),
+                contains(first.getId(), second.getId()));
+        assertThat(page.getNextCursor(), notNullValue());
+
+        CursorPage<UserDto> next = userService.findAll(page.getNextCursor(), 2);
+        assertThat(next.getItems().stream().map(UserDto::getId).toList(), contains(third.getId()));
+        assertThat(next.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void findAll_lastFullPage_hasNoNextCursor() {
+        UserDto first = userService.create(createNewUser("full1@ya.ru", "Первый"));
+        userService.create(createNewUser("full2@ya.ru", "Второй"));
+
+        CursorPage<UserDto> page = userService.findAll(IdCursor.after(first.getId() - 1).encode(), 2);
+
+        assertThat(page.getItems(), hasSize(2));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void findAll_invalidPageSizeOrCursor_shouldThrow() {
+        assertThrows(BadRequestException.class, () -> userService.findAll(null, 0));
+        assertThrows(BadRequestException.class, () -> userService.findAll(null, 101));
+        assertThrows(BadRequestException.class, () -> userService.findAll("не курсор", 20));
+    }
+
+    @Test
+    void export_writesOneJsonLinePerUser() throws Exception {
+        UserDto first = userService.create(createNewUser("export1@ya.ru", "Иван"));
+        UserDto second = userService.create(createNewUser("export2@ya.ru", "Петр"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExporter.export(out);
+
+        List<String> lines = List.of(out.toString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(lines, hasItems(
+                "{\"id\":" + first.getId() + ",\"email\":\"export1@ya.ru\",\"name\":\"Иван\"}",
+                "{\"id\":" + second.getId() + ",\"email\":\"export2@ya.ru\",\"name\":\"Петр\"}"));
+        assertThat(out.toString(StandardCharsets.UTF_8), endsWith("\n"));
+    }
+
+    @Test
+    void deleteUser_dropsTheApprovedPeriodsOfTheItemsTheUserBooked() {
+        UserDto owner = userService.create(createNewUser("calendar-owner@ya.ru", "Owner"));
+        UserDto booker = userService.create(createNewUser("calendar-booker@ya.ru", "Booker"));
+        Item item = new Item();
+        item.setName("палатка");
+        item.setDescription("трёхместная");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(owner.getId()));
+        item = itemRepository.save(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(userRepository.getReferenceById(booker.getId()));
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        assertThat(approvedBookingIndex.overlaps(item.getId(), start, start.plusHours(1)), equalTo(true));
+
+        userService.deleteUser(booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(approvedBookingIndex.overlaps(item.getId(), start, start.plusHours(1)), equalTo(false));
+    }
 
     private NewUserRequest createNewUser(String email, String name) {
         NewUserRequest newUserRequest = new NewUserRequest();